@@ -0,0 +1,162 @@
+package com.example.ecommerce.catalog;
+
+import com.example.ecommerce.catalog.domain.Brand;
+import com.example.ecommerce.catalog.domain.Category;
+import com.example.ecommerce.catalog.domain.Product;
+import com.example.ecommerce.catalog.domain.ProductImage;
+import jakarta.persistence.PrePersist;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Detached entities shaped like loaded ones (ids and timestamps set) for benchmarks,
+ * plus empty repository stubs for services whose benchmarked paths do not touch the
+ * database. Field values come from fixed seeds so runs are comparable.
+ */
+public final class CatalogFixtures {
+    private static final String[] COLORS = { "Black", "White", "Blue", "Gray", "Red", "Silver" };
+
+    private CatalogFixtures() {
+    }
+
+    public static Brand brand(int index) {
+        return persisted(new Brand.Builder()
+                .setName("Brand " + index)
+                .setDescription("Consumer electronics and accessories")
+                .setLogoUrl("https://cdn.example.com/brands/" + index + ".png")
+                .setActive(true)
+                .build());
+    }
+
+    public static Category category(int index, Category parent) {
+        return persisted(new Category.Builder()
+                .setName("Category " + index)
+                .setDescription("Category: " + index)
+                .setParent(parent)
+                .build());
+    }
+
+    /**
+     * A category tree with {@code fanOut} children per node, {@code depth} levels below
+     * the root.
+     */
+    public static Category categoryTree(int fanOut, int depth) {
+        Category root = category(0, null);
+        List<Category> level = List.of(root);
+        int index = 1;
+        for (int d = 0; d < depth; d++) {
+            List<Category> next = new ArrayList<>();
+            for (Category parent : level) {
+                for (int i = 0; i < fanOut; i++) {
+                    Category child = category(index++, null);
+                    child.changeParent(parent);
+                    next.add(child);
+                }
+            }
+            level = next;
+        }
+        return root;
+    }
+
+    public static Product product(long seed, Brand brand, Category category, int images) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String name = brand.getName() + " Galaxy S Ultra " + seed;
+        Product product = new Product.Builder()
+                .setProductName(name)
+                .setDescription(name + " — flagship phone with a 6.8 inch display, 256 GB storage and all-day battery.")
+                .setPrice(BigDecimal.valueOf(100 + random.nextInt(200_000), 2))
+                .setWeight(BigDecimal.valueOf(10 + random.nextInt(2_000), 2))
+                .setRating(BigDecimal.valueOf(100 + random.nextInt(400), 2))
+                .setStockQuantity(random.nextInt(500))
+                .setBrand(brand)
+                .setCategory(category)
+                .setSku("SAM-GAL-" + seed)
+                .setSize("Standard")
+                .setColor(COLORS[random.nextInt(COLORS.length)])
+                .setStatus(Product.Status.ACTIVE)
+                .build();
+        persisted(product);
+        for (int i = 0; i < images; i++) {
+            int size = i == 0 ? 1200 : 800;
+            product.addImage(persisted(new ProductImage.Builder()
+                    .imageUrl("https://cdn.example.com/products/" + product.getId() + "/" + i + ".jpg")
+                    .product(product)
+                    .isPrimary(i == 0)
+                    .displayOrder(i)
+                    .altText(name + " - image " + (i + 1))
+                    .imageType(i == 0 ? "MAIN" : "GALLERY")
+                    .fileSize(50_000L + random.nextInt(400_000))
+                    .mimeType("image/jpeg")
+                    .dimensions(size, size)
+                    .build()));
+        }
+        return product;
+    }
+
+    public static List<Product> products(int count, int images) {
+        List<Brand> brands = List.of(brand(1), brand(2), brand(3));
+        Category root = category(0, null);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            products.add(product(i, brands.get(i % brands.size()), category(i % 5 + 1, root), images));
+        }
+        return products;
+    }
+
+    /**
+     * A repository whose every method returns nothing: empty lists and optionals,
+     * zero, false or null.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T emptyRepository(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            Class<?> returnType = method.getReturnType();
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            if (List.class.isAssignableFrom(returnType) || returnType == Iterable.class) {
+                return List.of();
+            }
+            if (returnType == Optional.class) {
+                return Optional.empty();
+            }
+            if (returnType == boolean.class) {
+                return false;
+            }
+            if (returnType == int.class || returnType == long.class) {
+                return returnType == int.class ? (Object) 0 : (Object) 0L;
+            }
+            return null;
+        });
+    }
+
+    // Sets a random id and runs the @PrePersist callbacks, as saving would
+    private static <T> T persisted(T entity) {
+        try {
+            Field id = entity.getClass().getDeclaredField("id");
+            id.setAccessible(true);
+            id.set(entity, UUID.randomUUID());
+            for (Method method : entity.getClass().getDeclaredMethods()) {
+                if (method.isAnnotationPresent(PrePersist.class)) {
+                    method.setAccessible(true);
+                    method.invoke(entity);
+                }
+            }
+            return entity;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot prepare " + entity.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.ecommerce.catalog.app;
+
+import com.example.ecommerce.catalog.CatalogFixtures;
+import com.example.ecommerce.catalog.domain.Brand;
+import com.example.ecommerce.catalog.domain.Category;
+import com.example.ecommerce.catalog.domain.Product;
+import com.example.ecommerce.catalog.domain.ProductImage;
+import com.example.ecommerce.catalog.dto.brand.PaginatedBrandsResponseDto;
+import com.example.ecommerce.catalog.dto.category.CategoryResponseDto;
+import com.example.ecommerce.catalog.dto.category.CategoryTreeDto;
+import com.example.ecommerce.catalog.dto.image.ProductImageResponseDto;
+import com.example.ecommerce.catalog.dto.product.PaginatedProductListResponseDto;
+import com.example.ecommerce.catalog.dto.product.SearchProductResponseDto;
+import com.example.ecommerce.catalog.infra.CategoryRepository;
+import com.example.ecommerce.catalog.infra.ProductCountRepository;
+import com.example.ecommerce.catalog.infra.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping as done for every row of a listing page. Product counts come
+ * from the in-memory copy, loaded empty, so no benchmark touches a database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogMapperBenchmark {
+    private static final String LISTING_URL = "https://cdn.example.com/products/derived/thumbnail.jpg";
+
+    private ProductService productService;
+    private BrandService brandService;
+    private CategoryService categoryService;
+    private ProductImageService productImageService;
+
+    private Product product;
+    private ProductImage image;
+    private Brand brand;
+    private Category category;
+    private Category categoryTree;
+
+    @Setup
+    public void setUp() {
+        ProductCountService counts = new ProductCountService(
+                CatalogFixtures.emptyRepository(ProductCountRepository.class),
+                CatalogFixtures.emptyRepository(ProductRepository.class),
+                CatalogFixtures.emptyRepository(CategoryRepository.class));
+        counts.reconcile();
+
+        productService = new ProductService(null, null, null, counts, null, null, null, null);
+        brandService = new BrandService(null, null, counts, null, null, null);
+        categoryService = new CategoryService(null, counts, null, null);
+        productImageService = new ProductImageService(null, null, null, null, false, 300);
+
+        product = CatalogFixtures.products(1, 4).get(0);
+        image = product.getProductImages().get(0);
+        brand = product.getBrand();
+        category = product.getCategory();
+        // 1 + 5 + 25 + 125 nodes
+        categoryTree = CatalogFixtures.categoryTree(5, 3);
+    }
+
+    @Benchmark
+    public SearchProductResponseDto searchProductDto() {
+        return productService.toDto(product, LISTING_URL);
+    }
+
+    @Benchmark
+    public PaginatedProductListResponseDto paginatedProductDto() {
+        return productService.toPaginatedProductsDto(product, LISTING_URL);
+    }
+
+    @Benchmark
+    public PaginatedBrandsResponseDto paginatedBrandDto() {
+        return brandService.paginatedBrandsDtoMapper(brand);
+    }
+
+    @Benchmark
+    public CategoryResponseDto categoryDto() {
+        return categoryService.toDto(category);
+    }
+
+    @Benchmark
+    public CategoryTreeDto categoryTreeDto() {
+        return categoryService.categoryTreeResponse(categoryTree);
+    }
+
+    @Benchmark
+    public ProductImageResponseDto productImageDto() {
+        return productImageService.mapToDto(image);
+    }
+
+    @Benchmark
+    public List<ProductImageResponseDto> productImageDtos() {
+        return product.getProductImages().stream().map(productImageService::mapToDto).toList();
+    }
+}
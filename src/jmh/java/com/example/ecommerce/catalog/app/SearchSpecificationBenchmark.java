@@ -0,0 +1,39 @@
+package com.example.ecommerce.catalog.app;
+
+import com.example.ecommerce.catalog.domain.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the Specification of a product search, before any criteria query exists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchSpecificationBenchmark {
+
+    @Param({ "", "galaxy" })
+    private String query;
+
+    @Param({ "false", "true" })
+    private boolean inStock;
+
+    @Benchmark
+    public Specification<Product> searchSpecification() {
+        return ProductService.searchSpecification(query, inStock);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.ecommerce.catalog.domain;
+
+import com.example.ecommerce.catalog.CatalogFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * markAsPrimary with the sibling collection loaded, alternating the primary between
+ * the first and last image so every call has a previous primary to unset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductImageBenchmark {
+
+    @Param({ "4", "20" })
+    private int images;
+
+    private ProductImage first;
+    private ProductImage last;
+    private boolean flip;
+
+    @Setup
+    public void setUp() {
+        Product product = CatalogFixtures.product(1, CatalogFixtures.brand(1), CatalogFixtures.category(1, null),
+                images);
+        List<ProductImage> all = product.getProductImages();
+        first = all.get(0);
+        last = all.get(all.size() - 1);
+    }
+
+    @Benchmark
+    public boolean markAsPrimary() {
+        ProductImage image = (flip = !flip) ? last : first;
+        image.markAsPrimary();
+        return image.isPrimary();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.ecommerce.catalog.dto.common;
+
+import com.example.ecommerce.catalog.CatalogFixtures;
+import com.example.ecommerce.catalog.domain.Product;
+import com.example.ecommerce.catalog.dto.category.PageResponseDto;
+import com.example.ecommerce.catalog.dto.product.PaginatedProductListResponseDto;
+import com.example.ecommerce.catalog.dto.product.SearchProductResponseDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a listing page response body, with an ObjectMapper configured the
+ * way Spring Boot configures the one behind its message converters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({ "20", "100" })
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<PageResponseDto<SearchProductResponseDto>> searchPage;
+    private ApiResponse<PageResponseDto<PaginatedProductListResponseDto>> listingPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Product> products = CatalogFixtures.products(pageSize, 4);
+
+        List<SearchProductResponseDto> search = products.stream()
+                .map(p -> new SearchProductResponseDto(p.getId(), p.getProductName(), p.getDescription(),
+                        p.getPrice(), p.getStockQuantity(), p.getStatus(), p.getPrimaryImage(),
+                        p.getProductImages().get(0).getImageUrl()))
+                .toList();
+        searchPage = ApiResponse.success(new PageResponseDto<>(search, 0, pageSize, 10_000, 10_000 / pageSize,
+                false));
+
+        List<PaginatedProductListResponseDto> listing = products.stream()
+                .map(p -> new PaginatedProductListResponseDto(p.getId(), p.getProductName(), p.getDescription(),
+                        p.getRating(), p.getWeight(), p.getPrice(), p.getSize(), p.getSku(), p.getBrand().getName(),
+                        p.getProductImages().get(0).getImageUrl(), p.getCreatedAt(), p.getUpdatedAt()))
+                .toList();
+        listingPage = ApiResponse.success(new PageResponseDto<>(listing, 0, pageSize, 10_000, 10_000 / pageSize,
+                false));
+    }
+
+    @Benchmark
+    public byte[] searchPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(searchPage);
+    }
+
+    @Benchmark
+    public byte[] listingPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(listingPage);
+    }
+}
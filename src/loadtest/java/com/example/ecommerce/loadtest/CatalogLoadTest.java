@@ -0,0 +1,210 @@
+package com.example.ecommerce.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.ecommerce.ECommerceApplication;
+import com.example.ecommerce.catalog.infra.DataSeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * End-to-end HTTP load test of the catalog read endpoints.
+ * <p>
+ * Boots the application in-process (profile {@code local} by default, so it runs against
+ * the local Postgres), optionally seeds it, discovers product ids and search words, then
+ * drives the traffic mix at a constant arrival rate. Requests are fired on schedule whether
+ * or not earlier ones have completed, and each latency is measured from the moment the
+ * request was due, so server stalls are not hidden by the load generator backing off
+ * (coordinated omission).
+ * <p>
+ * Example: {@code rate=500 warmup=15s duration=2m seed=true --seed.products=1000000}
+ */
+public class CatalogLoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(CatalogLoadTest.class);
+
+    private static final int DISCOVERY_PAGE_SIZE = 100;
+    private static final int LISTING_PAGE_SIZE = 20;
+
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    CatalogLoadTest(LoadTestOptions options) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout())
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        int exitCode = 0;
+        try {
+            URI baseUri;
+            if (options.target().isBlank()) {
+                context = boot(options);
+                baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                        + "/");
+            } else {
+                baseUri = URI.create(options.target().endsWith("/") ? options.target() : options.target() + "/");
+            }
+            new CatalogLoadTest(options).run(baseUri);
+        } catch (Exception e) {
+            logger.error("Load test failed: {}", e.getMessage(), e);
+            exitCode = 1;
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    LatencyRecorder run(URI baseUri) throws Exception {
+        TrafficMix mix = discover(baseUri);
+        LatencyRecorder recorder = new LatencyRecorder();
+
+        logger.info("Driving {} req/s against {}: warmup {}, measured {}, mix {}",
+                options.rate(), baseUri, options.warmup(), options.duration(), options.mix());
+        drive(mix, recorder);
+
+        System.out.println();
+        recorder.report(options.duration(), System.out, options.reportDir());
+        logger.info("Percentile distributions written to {}", options.reportDir().toAbsolutePath());
+        return recorder;
+    }
+
+    static ConfigurableApplicationContext boot(LoadTestOptions options) {
+        SpringApplication app = new SpringApplication(ECommerceApplication.class);
+        app.setAdditionalProfiles(options.profiles().split(","));
+        app.setDefaultProperties(Map.of("server.port", "0", "spring.jpa.show-sql", "false"));
+        ConfigurableApplicationContext context = app.run(options.springArgs().toArray(String[]::new));
+        if (options.seed()) {
+            context.getBean(DataSeeder.class).seedData();
+        }
+        return context;
+    }
+
+    // -------------------- private helpers --------------------
+
+    /**
+     * Samples the first listing page for real product ids and the words of their names, and
+     * sizes the listing page range from the reported total.
+     */
+    private TrafficMix discover(URI baseUri) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("products?page=0&size=" + DISCOVERY_PAGE_SIZE))
+                .timeout(options.timeout())
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Product discovery returned HTTP " + response.statusCode());
+        }
+
+        JsonNode page = objectMapper.readTree(response.body()).path("data");
+        List<UUID> productIds = new ArrayList<>();
+        Set<String> words = new LinkedHashSet<>();
+        for (JsonNode product : page.path("content")) {
+            productIds.add(UUID.fromString(product.path("id").asText()));
+            for (String word : product.path("product").asText("").split("\\s+")) {
+                if (word.length() >= 3) {
+                    words.add(word.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        long totalElements = page.path("totalElements").asLong();
+        int listingPages = (int) Math.min(Integer.MAX_VALUE, (totalElements + LISTING_PAGE_SIZE - 1) / LISTING_PAGE_SIZE);
+        if (productIds.isEmpty()) {
+            logger.warn("No products found, product lookups will all miss; run with seed=true to populate");
+        }
+        logger.info("Discovered {} product ids and {} search words out of {} products",
+                productIds.size(), words.size(), totalElements);
+        return new TrafficMix(baseUri, options.mix(), productIds, List.copyOf(words), listingPages,
+                options.randomSeed());
+    }
+
+    /**
+     * Open-model pacing loop: request {@code i} is due at {@code start + i / rate}. The loop
+     * only sleeps until the next due time and never waits for responses, so a slow server
+     * makes in-flight requests pile up instead of lowering the offered load.
+     */
+    private void drive(TrafficMix mix, LatencyRecorder recorder) throws InterruptedException {
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / (double) options.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        AtomicInteger inFlight = new AtomicInteger();
+
+        for (long i = 0;; i++) {
+            long due = start + (long) (i * intervalNanos);
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            TrafficMix.Request next = mix.next();
+            boolean measured = due >= measureFrom;
+            if (inFlight.get() >= options.maxInFlight()) {
+                if (measured) {
+                    recorder.recordDropped(next.endpoint());
+                }
+                continue;
+            }
+
+            HttpRequest request = HttpRequest.newBuilder(next.uri())
+                    .timeout(options.timeout())
+                    .GET()
+                    .build();
+            inFlight.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.decrementAndGet();
+                        if (!measured) {
+                            return;
+                        }
+                        long latency = System.nanoTime() - due;
+                        if (error == null && isExpected(next.endpoint(), response.statusCode())) {
+                            recorder.recordSuccess(next.endpoint(), latency);
+                        } else {
+                            recorder.recordError(next.endpoint(), latency);
+                        }
+                    });
+        }
+
+        long drainDeadline = System.nanoTime() + options.timeout().toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        if (inFlight.get() > 0) {
+            logger.warn("{} requests still in flight after the timeout; they are not recorded", inFlight.get());
+        }
+    }
+
+    private static boolean isExpected(Endpoint endpoint, int status) {
+        // Lookups of unknown ids are part of the mix when the catalog is empty
+        return status == 200 || (endpoint == Endpoint.PRODUCT && status == 404);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.ecommerce.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Read endpoints driven by the load harness.
+ */
+public enum Endpoint {
+    PRODUCTS("products", "GET /products"),
+    SEARCH("search", "GET /products/search"),
+    PRODUCT("product", "GET /products/{id}"),
+    CATEGORY_TREE("category-tree", "GET /category/tree"),
+    BRANDS("brands", "GET /brand");
+
+    private final String key;
+    private final String label;
+
+    Endpoint(String key, String label) {
+        this.key = key;
+        this.label = label;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public static Endpoint byName(String key) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint: " + key));
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.ecommerce.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Per-endpoint latency histograms in microseconds. Latencies are measured by the caller
+ * from the <em>intended</em> send time of a request, so a stalled server shows up as the
+ * queueing delay every request behind it suffered rather than as a single slow sample.
+ */
+public class LatencyRecorder {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<Endpoint, Series> series = new EnumMap<>(Endpoint.class);
+
+    public LatencyRecorder() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            series.put(endpoint, new Series());
+        }
+    }
+
+    public void recordSuccess(Endpoint endpoint, long latencyNanos) {
+        series.get(endpoint).histogram.recordValue(toMicros(latencyNanos));
+    }
+
+    /**
+     * Error latencies are kept too: a fast 500 must not make the percentiles look better.
+     */
+    public void recordError(Endpoint endpoint, long latencyNanos) {
+        Series target = series.get(endpoint);
+        target.histogram.recordValue(toMicros(latencyNanos));
+        target.errors.increment();
+    }
+
+    /**
+     * A request never sent because too many were outstanding; counted as an error only,
+     * since it has no latency to speak of beyond "at least the timeout".
+     */
+    public void recordDropped(Endpoint endpoint) {
+        series.get(endpoint).dropped.increment();
+    }
+
+    /**
+     * Prints the summary table and writes one percentile distribution per endpoint,
+     * plottable with the HdrHistogram plotter.
+     */
+    public void report(Duration measured, PrintStream out, Path reportDir) throws IOException {
+        double seconds = measured.toMillis() / 1000.0;
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long totalErrors = 0;
+        long totalDropped = 0;
+
+        Files.createDirectories(reportDir);
+        out.printf("%-22s %9s %9s %7s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "dropped", "p50 ms", "p90 ms", "p99 ms", "p999 ms",
+                "max ms");
+        for (Map.Entry<Endpoint, Series> entry : series.entrySet()) {
+            Series s = entry.getValue();
+            Histogram histogram = s.histogram.copy();
+            if (histogram.getTotalCount() == 0 && s.dropped.sum() == 0) {
+                continue;
+            }
+            printRow(out, entry.getKey().label(), histogram, seconds, s.errors.sum(), s.dropped.sum());
+            writeDistribution(histogram, reportDir.resolve(entry.getKey().key() + ".hgrm"));
+            total.add(histogram);
+            totalErrors += s.errors.sum();
+            totalDropped += s.dropped.sum();
+        }
+        printRow(out, "all", total, seconds, totalErrors, totalDropped);
+        writeDistribution(total, reportDir.resolve("all.hgrm"));
+    }
+
+    /**
+     * Totals over all endpoints, for comparing runs.
+     *
+     * @param throughput successful requests per second of measured time
+     */
+    public record Summary(long requests, long errors, long dropped, double throughput, double p50Millis,
+            double p99Millis, double maxMillis) {
+    }
+
+    public Summary summary(Duration measured) {
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        long errors = 0;
+        long dropped = 0;
+        for (Series s : series.values()) {
+            total.add(s.histogram.copy());
+            errors += s.errors.sum();
+            dropped += s.dropped.sum();
+        }
+        double seconds = measured.toMillis() / 1000.0;
+        return new Summary(total.getTotalCount(), errors, dropped, (total.getTotalCount() - errors) / seconds,
+                millis(total, 50.0), millis(total, 99.0), total.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    // -------------------- private helpers --------------------
+
+    private static long toMicros(long nanos) {
+        return Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    private static void printRow(PrintStream out, String label, Histogram histogram, double seconds, long errors,
+            long dropped) {
+        out.printf("%-22s %9d %9.1f %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                label,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds,
+                errors,
+                dropped,
+                millis(histogram, 50.0),
+                millis(histogram, 90.0),
+                millis(histogram, 99.0),
+                millis(histogram, 99.9),
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static void writeDistribution(Histogram histogram, Path file) throws IOException {
+        try (PrintStream stream = new PrintStream(Files.newOutputStream(file))) {
+            histogram.outputPercentileDistribution(stream, MICROS_PER_MILLI);
+        }
+    }
+
+    private static final class Series {
+        private final ConcurrentHistogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.ecommerce.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of a load test run, given as {@code key=value} arguments. Arguments starting
+ * with {@code --} are passed through to the booted application, e.g.
+ * {@code --spring.datasource.url=jdbc:postgresql://localhost:5432/ecom}.
+ *
+ * @param target        base URL of an already running instance; when blank the
+ *                      application is booted in-process on a random port
+ * @param profiles      Spring profiles of the booted application
+ * @param seed          run DataSeeder (sized by the {@code --seed.*} properties) first
+ * @param rate          requests per second, issued at a constant rate whatever the
+ *                      response times (open model)
+ * @param warmup        leading time whose requests are sent but not recorded
+ * @param duration      recorded time after the warmup
+ * @param mix           relative weights per endpoint
+ * @param randomSeed    seed of the request mix and parameters, for repeatable runs
+ * @param maxInFlight   outstanding requests beyond which new ones are counted as
+ *                      dropped instead of sent
+ * @param timeout       per-request timeout
+ * @param reportDir     where per-endpoint percentile distributions (.hgrm) are written
+ * @param springArgs    the pass-through arguments
+ */
+public record LoadTestOptions(
+        String target,
+        String profiles,
+        boolean seed,
+        int rate,
+        Duration warmup,
+        Duration duration,
+        Map<Endpoint, Integer> mix,
+        long randomSeed,
+        int maxInFlight,
+        Duration timeout,
+        Path reportDir,
+        List<String> springArgs) {
+
+    private static final String DEFAULT_MIX = "products=30,search=25,product=30,category-tree=5,brands=10";
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                springArgs.add(arg);
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(
+                values.getOrDefault("target", ""),
+                values.getOrDefault("profiles", "local"),
+                Boolean.parseBoolean(values.getOrDefault("seed", "false")),
+                Integer.parseInt(values.getOrDefault("rate", "100")),
+                duration(values.getOrDefault("warmup", "10s")),
+                duration(values.getOrDefault("duration", "60s")),
+                mix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Long.parseLong(values.getOrDefault("random-seed", "42")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "2000")),
+                duration(values.getOrDefault("timeout", "10s")),
+                Path.of(values.getOrDefault("report-dir", "target/loadtest")),
+                List.copyOf(springArgs));
+    }
+
+    public LoadTestOptions withRate(int rate, Path reportDir) {
+        return new LoadTestOptions(target, profiles, seed, rate, warmup, duration, mix, randomSeed, maxInFlight,
+                timeout, reportDir, springArgs);
+    }
+
+    public LoadTestOptions withSpringArg(String arg) {
+        List<String> args = new ArrayList<>(springArgs);
+        args.add(arg);
+        return new LoadTestOptions(target, profiles, seed, rate, warmup, duration, mix, randomSeed, maxInFlight,
+                timeout, reportDir, List.copyOf(args));
+    }
+
+    public LoadTestOptions withoutSeed() {
+        return new LoadTestOptions(target, profiles, false, rate, warmup, duration, mix, randomSeed, maxInFlight,
+                timeout, reportDir, springArgs);
+    }
+
+    // -------------------- private helpers --------------------
+
+    private static Duration duration(String value) {
+        String number = value.replaceAll("[a-z]+$", "");
+        long amount = Long.parseLong(number);
+        return switch (value.substring(number.length())) {
+            case "ms" -> Duration.ofMillis(amount);
+            case "s", "" -> Duration.ofSeconds(amount);
+            case "m" -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Unknown duration unit in: " + value);
+        };
+    }
+
+    private static Map<Endpoint, Integer> mix(String value) {
+        Map<Endpoint, Integer> weights = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected endpoint=weight in mix but got: " + entry);
+            }
+            weights.put(Endpoint.byName(parts[0]), Integer.parseInt(parts[1]));
+        }
+        return weights;
+    }
+}
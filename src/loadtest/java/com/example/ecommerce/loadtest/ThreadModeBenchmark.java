@@ -0,0 +1,104 @@
+package com.example.ecommerce.loadtest;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Compares request handling on platform threads with virtual threads. For each mode the
+ * application is booted in-process with {@code spring.threads.virtual.enabled} set
+ * accordingly and driven through the same increasing arrival rates; the table at the end
+ * shows, per rate, the successful throughput each mode sustained and its latency. The rate
+ * at which a mode stops keeping up (throughput below the offered rate, errors or dropped
+ * requests, p99 jumping) is its capacity.
+ * <p>
+ * Takes the {@link LoadTestOptions} plus {@code rates} (comma-separated, default
+ * {@code 250,500,1000,2000}) and {@code modes} (default {@code platform,virtual}); seeding
+ * happens once, before the first mode. Virtual mode needs a Java 21 runtime, otherwise
+ * both runs use platform threads. Example:
+ * {@code rates=500,1000,2000,4000 warmup=15s duration=1m seed=true --seed.products=1000000}
+ */
+public class ThreadModeBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(ThreadModeBenchmark.class);
+
+    private record Result(String mode, int rate, LatencyRecorder.Summary summary) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> loadArgs = new ArrayList<>();
+        List<Integer> rates = List.of(250, 500, 1000, 2000);
+        List<String> modes = List.of("platform", "virtual");
+        for (String arg : args) {
+            if (arg.startsWith("rates=")) {
+                rates = Arrays.stream(arg.substring(6).split(",")).map(String::trim).map(Integer::valueOf).toList();
+            } else if (arg.startsWith("modes=")) {
+                modes = Arrays.stream(arg.substring(6).split(",")).map(String::trim).toList();
+            } else {
+                loadArgs.add(arg);
+            }
+        }
+        LoadTestOptions options = LoadTestOptions.parse(loadArgs.toArray(String[]::new));
+        if (modes.contains("virtual") && Runtime.version().feature() < 21) {
+            logger.warn("Java {} has no virtual threads; the virtual run will use platform threads",
+                    Runtime.version().feature());
+        }
+
+        List<Result> results = new ArrayList<>();
+        int exitCode = 0;
+        try {
+            for (String mode : modes) {
+                results.addAll(runMode(mode, rates, options));
+                options = options.withoutSeed();
+            }
+            printComparison(results);
+        } catch (Exception e) {
+            logger.error("Benchmark failed: {}", e.getMessage(), e);
+            exitCode = 1;
+        }
+        System.exit(exitCode);
+    }
+
+    // -------------------- private helpers --------------------
+
+    private static List<Result> runMode(String mode, List<Integer> rates, LoadTestOptions options) throws Exception {
+        if (!mode.equals("platform") && !mode.equals("virtual")) {
+            throw new IllegalArgumentException("Unknown thread mode: " + mode);
+        }
+        LoadTestOptions bootOptions = options.withSpringArg("--spring.threads.virtual.enabled=" + mode.equals("virtual"));
+        List<Result> results = new ArrayList<>();
+        try (ConfigurableApplicationContext context = CatalogLoadTest.boot(bootOptions)) {
+            URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                    + "/");
+            for (int rate : rates) {
+                LoadTestOptions run = options.withRate(rate, options.reportDir().resolve(mode + "-" + rate));
+                logger.info("Thread mode {} at {} req/s", mode, rate);
+                LatencyRecorder recorder = new CatalogLoadTest(run).run(baseUri);
+                results.add(new Result(mode, rate, recorder.summary(run.duration())));
+            }
+        }
+        return results;
+    }
+
+    private static void printComparison(List<Result> results) {
+        System.out.println();
+        System.out.printf("%-9s %9s %12s %9s %9s %9s %9s %9s%n",
+                "mode", "offered", "ok req/s", "errors", "dropped", "p50 ms", "p99 ms", "max ms");
+        for (Result result : results) {
+            LatencyRecorder.Summary summary = result.summary();
+            System.out.printf("%-9s %9d %12.1f %9d %9d %9.2f %9.2f %9.2f%n",
+                    result.mode(),
+                    result.rate(),
+                    summary.throughput(),
+                    summary.errors(),
+                    summary.dropped(),
+                    summary.p50Millis(),
+                    summary.p99Millis(),
+                    summary.maxMillis());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.ecommerce.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Picks the next request of the run: an endpoint by weight, then its parameters from the
+ * ids and words discovered in the seeded catalog. Listing pages are skewed towards the
+ * first ones, the way browsing traffic is, so caches see a realistic hit ratio.
+ */
+public class TrafficMix {
+    private static final String[] SORTS = { "price", "createdAt", "rating" };
+    private static final int PAGE_SIZE = 20;
+
+    private final URI baseUri;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final List<UUID> productIds;
+    private final List<String> searchWords;
+    private final int listingPages;
+    private final SplittableRandom random;
+
+    public TrafficMix(URI baseUri, Map<Endpoint, Integer> weights, List<UUID> productIds, List<String> searchWords,
+            int listingPages, long randomSeed) {
+        List<Map.Entry<Endpoint, Integer>> active = weights.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .toList();
+        if (active.isEmpty()) {
+            throw new IllegalArgumentException("Traffic mix has no endpoint with a positive weight");
+        }
+        this.baseUri = baseUri;
+        this.endpoints = new Endpoint[active.size()];
+        this.cumulativeWeights = new int[active.size()];
+        int total = 0;
+        for (int i = 0; i < active.size(); i++) {
+            total += active.get(i).getValue();
+            endpoints[i] = active.get(i).getKey();
+            cumulativeWeights[i] = total;
+        }
+        this.productIds = productIds;
+        this.searchWords = searchWords;
+        this.listingPages = Math.max(1, listingPages);
+        this.random = new SplittableRandom(randomSeed);
+    }
+
+    /**
+     * Called from the single pacing thread only.
+     */
+    public Request next() {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = 0;
+        while (roll >= cumulativeWeights[index]) {
+            index++;
+        }
+        Endpoint endpoint = endpoints[index];
+        return new Request(endpoint, baseUri.resolve(pathFor(endpoint)));
+    }
+
+    public record Request(Endpoint endpoint, URI uri) {}
+
+    // -------------------- private helpers --------------------
+
+    private String pathFor(Endpoint endpoint) {
+        return switch (endpoint) {
+            case PRODUCTS -> "products?page=" + skewedPage() + "&size=" + PAGE_SIZE;
+            case SEARCH -> "products/search?searchQuery=" + encode(searchWord())
+                    + "&inStock=" + random.nextBoolean()
+                    + "&page=0&limit=" + PAGE_SIZE
+                    + "&sort=" + SORTS[random.nextInt(SORTS.length)];
+            // An empty catalog still gets traffic: every lookup is then a 404 miss
+            case PRODUCT -> "products/" + (productIds.isEmpty() ? UUID.randomUUID()
+                    : productIds.get(random.nextInt(productIds.size())));
+            case CATEGORY_TREE -> "category/tree?page=0&size=" + PAGE_SIZE;
+            case BRANDS -> "brand?page=" + random.nextInt(2) + "&size=" + PAGE_SIZE;
+        };
+    }
+
+    private int skewedPage() {
+        // Geometric with mean ~2: most requests hit the first pages, a long tail goes deep
+        int page = (int) (-Math.log(1 - random.nextDouble()) * 2);
+        return Math.min(page, listingPages - 1);
+    }
+
+    private String searchWord() {
+        return searchWords.isEmpty() ? "pro" : searchWords.get(random.nextInt(searchWords.size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
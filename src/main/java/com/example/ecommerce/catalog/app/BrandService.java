@@ -1,11 +1,20 @@
 package com.example.ecommerce.catalog.app;
 
 import com.example.ecommerce.catalog.domain.Brand;
-import com.example.ecommerce.catalog.domain.Product;
+import com.example.ecommerce.catalog.domain.SlugRedirect;
+import com.example.ecommerce.catalog.dto.brand.BrandProductCursor;
+import com.example.ecommerce.catalog.dto.brand.BrandProductDto;
+import com.example.ecommerce.catalog.dto.brand.BrandProductFilter;
+import com.example.ecommerce.catalog.dto.brand.BrandProductPageDto;
+import com.example.ecommerce.catalog.dto.brand.BrandProductSort;
 import com.example.ecommerce.catalog.dto.brand.BrandResponseDto;
 import com.example.ecommerce.catalog.dto.brand.PaginatedBrandsResponseDto;
 import com.example.ecommerce.catalog.dto.category.PageResponseDto;
+import com.example.ecommerce.catalog.dto.common.ProductCountDto;
+import com.example.ecommerce.catalog.dto.slug.SlugResolutionDto;
 import com.example.ecommerce.catalog.infra.BrandRepository;
+import com.example.ecommerce.catalog.infra.ProductRepository;
+import com.example.ecommerce.common.exception.ResourceNotFoundException;
 import com.example.ecommerce.common.util.SlugGenerator;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -20,15 +29,32 @@ import java.util.UUID;
 @Transactional
 public class BrandService {
     private final BrandRepository brandRepository;
+    private final ProductRepository productRepository;
+    private final ProductCountService productCountService;
+    private final SlugRouterService slugRouter;
+    private final ExistenceFilterService existenceFilter;
+    private final ProductImageService productImageService;
 
-    public BrandService(BrandRepository brandRepository) {
+    public BrandService(BrandRepository brandRepository, ProductRepository productRepository,
+            ProductCountService productCountService, SlugRouterService slugRouter,
+            ExistenceFilterService existenceFilter, ProductImageService productImageService) {
         this.brandRepository = brandRepository;
+        this.productRepository = productRepository;
+        this.productCountService = productCountService;
+        this.slugRouter = slugRouter;
+        this.existenceFilter = existenceFilter;
+        this.productImageService = productImageService;
     }
 
+    @Transactional(readOnly = true)
     public BrandResponseDto getBrandById(UUID id) {
+        if (!existenceFilter.mightExist(SlugRedirect.TargetType.BRAND, id)) {
+            throw ResourceNotFoundException.BRAND;
+        }
         Brand brand = brandRepository
                 .findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Brand not found"));
+                .orElseThrow(() -> ResourceNotFoundException.BRAND);
+        ProductCountDto counts = productCountService.getCounts(brand.getId());
         return new BrandResponseDto(
                 brand.getId(),
                 brand.getName(),
@@ -36,17 +62,44 @@ public class BrandService {
                 brand.getLogoUrl(),
                 brand.getSlug(),
                 brand.isActive(),
+                counts.productCount(),
+                counts.activeProductCount(),
                 brand.getCreatedAt(),
                 brand.getUpdatedAt());
     }
 
-    public List<Product> getProductsByBrand(UUID id) {
-        Brand brand = brandRepository
-                .findByIdWithProducts(id)
-                .orElseThrow(() -> new IllegalArgumentException("Brand not found"));
-        return brand.getProducts();
+    @Transactional(readOnly = true)
+    public BrandResponseDto getBrandBySlug(String slug) {
+        UUID id = slugRouter.resolve(SlugRedirect.TargetType.BRAND, slug)
+                .map(SlugResolutionDto::id)
+                .orElseThrow(() -> ResourceNotFoundException.BRAND);
+        return getBrandById(id);
+    }
+
+    @Transactional(readOnly = true)
+    public BrandProductPageDto getProductsByBrand(UUID id, String cursor, int size, BrandProductSort sort,
+            BrandProductFilter filter) {
+        if (!existenceFilter.mightExist(SlugRedirect.TargetType.BRAND, id)) {
+            throw ResourceNotFoundException.BRAND;
+        }
+        int pageSize = Math.max(1, Math.min(size, 100));
+        BrandProductCursor after = cursor != null && !cursor.isBlank()
+                ? BrandProductCursor.decode(cursor, sort)
+                : null;
+
+        // One extra row tells us whether another page exists without a COUNT query
+        List<BrandProductDto> rows = productRepository.findBrandProducts(id, filter, sort, after, pageSize + 1);
+        // Deleted brands stay in the existence filter until it is rebuilt
+        if (rows.isEmpty() && !brandRepository.existsById(id)) {
+            throw ResourceNotFoundException.BRAND;
+        }
+        boolean last = rows.size() <= pageSize;
+        List<BrandProductDto> content = last ? rows : rows.subList(0, pageSize);
+        String nextCursor = last ? null : BrandProductCursor.after(sort, content.get(pageSize - 1)).encode();
+        return new BrandProductPageDto(content, pageSize, nextCursor, last);
     }
 
+    @Transactional(readOnly = true)
     public PageResponseDto<PaginatedBrandsResponseDto> getPaginated(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         Page<Brand> brandPage = brandRepository.findAll(pageable);
@@ -64,7 +117,10 @@ public class BrandService {
     public Brand createBrand(String name, String description, String logoUrl, Boolean active) {
         String slug = SlugGenerator.generateSlug(name);
         Brand.Builder brandBuilder = new Brand.Builder().setName(name).setSlug(slug).setActive(active);
-        return brandRepository.save(brandBuilder.build());
+        Brand saved = brandRepository.save(brandBuilder.build());
+        slugRouter.register(SlugRedirect.TargetType.BRAND, saved.getId(), saved.getSlug());
+        existenceFilter.record(SlugRedirect.TargetType.BRAND, saved.getId(), saved.getSlug());
+        return saved;
     }
 
     public Brand updateBrand(
@@ -73,7 +129,9 @@ public class BrandService {
                 .findById(brandId)
                 .orElseThrow(() -> new RuntimeException("Brand not found"));
         if (name != null && !name.isBlank()) {
-            brand.setName(name);
+            String oldSlug = brand.getSlug();
+            brand.updateName(name);
+            slugRouter.rename(SlugRedirect.TargetType.BRAND, brand.getId(), oldSlug, brand.getSlug());
         }
         if (description != null && !description.isBlank()) {
             brand.setDescription(description);
@@ -100,12 +158,18 @@ public class BrandService {
         Brand brand = brandRepository
                 .findById(id)
                 .orElseThrow(() -> new RuntimeException("Brand not found"));
+        productCountService.recordBrandRemoval(brand.getId());
+        // The brand's products and their images cascade away with it
+        productImageService.releaseBrandStoredImages(brand.getId());
+        slugRouter.unregister(SlugRedirect.TargetType.BRAND, brand.getId(), brand.getSlug());
         brandRepository.delete(brand);
         return true;
     }
 
-    private PaginatedBrandsResponseDto paginatedBrandsDtoMapper(Brand brand) {
+    PaginatedBrandsResponseDto paginatedBrandsDtoMapper(Brand brand) {
+        ProductCountDto counts = productCountService.getCounts(brand.getId());
         return new PaginatedBrandsResponseDto(brand.getId(), brand.getName(), brand.getDescription(),
-                brand.getLogoUrl(), brand.getCreatedAt(), brand.getUpdatedAt());
+                brand.getLogoUrl(), counts.productCount(), counts.activeProductCount(), brand.getCreatedAt(),
+                brand.getUpdatedAt());
     }
 }
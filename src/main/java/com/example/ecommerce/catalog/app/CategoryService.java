@@ -1,6 +1,7 @@
 package com.example.ecommerce.catalog.app;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -10,20 +11,31 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.example.ecommerce.catalog.domain.Category;
+import com.example.ecommerce.catalog.domain.SlugRedirect;
 import com.example.ecommerce.catalog.dto.category.CategoryResponseDto;
 import com.example.ecommerce.catalog.dto.category.CategoryTreeDto;
 import com.example.ecommerce.catalog.dto.category.CreateCategoryRequest;
 import com.example.ecommerce.catalog.dto.category.PageResponseDto;
+import com.example.ecommerce.catalog.dto.common.ProductCountDto;
+import com.example.ecommerce.catalog.dto.slug.SlugResolutionDto;
 import com.example.ecommerce.catalog.infra.CategoryRepository;
+import com.example.ecommerce.common.exception.ResourceNotFoundException;
 import com.example.ecommerce.common.exception.category.CategoryNotFoundException;
 
 @Service
 @Transactional
 public class CategoryService {
     private final CategoryRepository categoryRepo;
+    private final ProductCountService productCountService;
+    private final SlugRouterService slugRouter;
+    private final ExistenceFilterService existenceFilter;
 
-    public CategoryService(CategoryRepository categoryRepo) {
+    public CategoryService(CategoryRepository categoryRepo, ProductCountService productCountService,
+            SlugRouterService slugRouter, ExistenceFilterService existenceFilter) {
         this.categoryRepo = categoryRepo;
+        this.productCountService = productCountService;
+        this.slugRouter = slugRouter;
+        this.existenceFilter = existenceFilter;
     }
 
     public Category create(String name, String description, UUID parentCategoryId) {
@@ -35,11 +47,16 @@ public class CategoryService {
         return saveCategory(name, description, null);
     }
 
+    @Transactional(readOnly = true)
     public Category findById(UUID id) {
+        if (!existenceFilter.mightExist(SlugRedirect.TargetType.CATEGORY, id)) {
+            throw ResourceNotFoundException.CATEGORY;
+        }
         return categoryRepo.findById(id)
-                .orElseThrow(() -> new CategoryNotFoundException("Category not found with id: " + id));
+                .orElseThrow(() -> ResourceNotFoundException.CATEGORY);
     }
 
+    @Transactional(readOnly = true)
     public PageResponseDto<CategoryTreeDto> getPaginatedCategoryTree(int page, int size) {
         Page<Category> categoryPage = categoryRepo
                 .findCategoriesWithChildren(PageRequest.of(page, Math.min(size, 100)));
@@ -57,6 +74,7 @@ public class CategoryService {
                 categoryPage.isLast());
     }
 
+    @Transactional(readOnly = true)
     public PageResponseDto<CategoryResponseDto> getPaginated(int page, int size) {
         Pageable pageable = PageRequest.of(page, Math.min(size, 100));
         Page<Category> categoryPage = categoryRepo.findAll(pageable);
@@ -72,11 +90,15 @@ public class CategoryService {
                 categoryPage.isLast());
     }
 
+    @Transactional(readOnly = true)
     public Category findBySlug(String slug) {
-        return categoryRepo.findBySlug(slug)
-                .orElseThrow(() -> new CategoryNotFoundException("Category not found with slug: " + slug));
+        UUID id = slugRouter.resolve(SlugRedirect.TargetType.CATEGORY, slug)
+                .map(SlugResolutionDto::id)
+                .orElseThrow(() -> ResourceNotFoundException.CATEGORY);
+        return findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<CategoryTreeDto> getCategoryTreeByParentId(UUID parentId) {
         Category parent = categoryRepo.findById(parentId)
                 .orElseThrow(() -> new CategoryNotFoundException("Parent Category not found with id: " + parentId));
@@ -89,17 +111,22 @@ public class CategoryService {
         Category category = categoryRepo.findById(id)
                 .orElseThrow(() -> new CategoryNotFoundException("Category not found with id: " + id));
         if (request.getCategoryName() != null) {
+            String oldSlug = category.getSlug();
             category.updateName(request.getCategoryName());
+            slugRouter.rename(SlugRedirect.TargetType.CATEGORY, category.getId(), oldSlug, category.getSlug());
         }
         if (request.getDescription() != null) {
             category.updateDescription(request.getDescription());
         }
+        Category oldParent = category.getParent();
+        Category newParent = null;
         if (request.getParentCategoryId() != null) {
-            Category parent = categoryRepo.findById(request.getParentCategoryId())
+            newParent = categoryRepo.findById(request.getParentCategoryId())
                     .orElseThrow(() -> new RuntimeException("Parent not found"));
-            category.changeParent(parent);
-        } else {
-            category.changeParent(null);
+        }
+        category.changeParent(newParent);
+        if (!Objects.equals(idOf(oldParent), idOf(newParent))) {
+            productCountService.recordCategoryMove(category.getId(), oldParent, newParent);
         }
         return categoryRepo.save(category);
     }
@@ -112,10 +139,17 @@ public class CategoryService {
         if (parent != null)
             builder.setParent(parent);
 
-        return categoryRepo.save(builder.build());
+        Category saved = categoryRepo.save(builder.build());
+        slugRouter.register(SlugRedirect.TargetType.CATEGORY, saved.getId(), saved.getSlug());
+        existenceFilter.record(SlugRedirect.TargetType.CATEGORY, saved.getId(), saved.getSlug());
+        return saved;
+    }
+
+    private UUID idOf(Category category) {
+        return category != null ? category.getId() : null;
     }
 
-    private CategoryResponseDto toDto(Category category) {
+    CategoryResponseDto toDto(Category category) {
         CategoryResponseDto dto = new CategoryResponseDto();
         dto.setId(category.getId());
         dto.setName(category.getName());
@@ -124,10 +158,13 @@ public class CategoryService {
         dto.setCreatedAt(category.getCreatedAt());
         dto.setUpdatedAt(category.getUpdatedAt());
         dto.setRootCategory(category.isRootCategory());
+        ProductCountDto counts = productCountService.getCounts(category.getId());
+        dto.setProductCount(counts.subtreeProductCount());
+        dto.setActiveProductCount(counts.subtreeActiveProductCount());
         return dto;
     }
 
-    private CategoryTreeDto categoryTreeResponse(Category category) {
+    CategoryTreeDto categoryTreeResponse(Category category) {
         CategoryTreeDto dto = new CategoryTreeDto();
         dto.setId(category.getId());
         dto.setName(category.getName());
@@ -136,6 +173,9 @@ public class CategoryService {
         dto.setCreatedAt(category.getCreatedAt());
         dto.setUpdatedAt(category.getUpdatedAt());
         dto.setRootCategory(category.isRootCategory());
+        ProductCountDto counts = productCountService.getCounts(category.getId());
+        dto.setProductCount(counts.subtreeProductCount());
+        dto.setActiveProductCount(counts.subtreeActiveProductCount());
 
         // Recursively convert subcategories
         // List<CategoryTreeDto> subCategoryDtos = category.getSubCategories().stream()
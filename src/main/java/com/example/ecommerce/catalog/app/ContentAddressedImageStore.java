@@ -0,0 +1,228 @@
+package com.example.ecommerce.catalog.app;
+
+import com.example.ecommerce.catalog.domain.StoredObject;
+import com.example.ecommerce.catalog.infra.StoredObjectRepository;
+import com.example.ecommerce.common.config.S3Service;
+import com.example.ecommerce.common.config.S3TransferService;
+import com.example.ecommerce.common.config.UploadedFile;
+import com.example.ecommerce.common.util.ImageHeaderSniffer;
+import com.example.ecommerce.common.util.ImageHeaderSniffer.ImageHeader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Stores product images under keys derived from the SHA-256 of their bytes, so the
+ * same photo uploaded for many products is stored (and cached by the CDN) once.
+ * <p>
+ * The hash is computed by streaming the multipart file, which the servlet container
+ * has already spooled, before anything is sent to storage; when the stored_objects
+ * index already holds the object the upload is skipped. References count image rows:
+ * each row insert takes one in its transaction and each row delete releases one, so
+ * uploads that are never attached to a product stay at zero. Objects whose count stays
+ * at zero for the grace period are swept from storage, and a periodic recount repairs
+ * counts that missed deletes made outside the application.
+ */
+@Slf4j
+@Service
+public class ContentAddressedImageStore {
+    private static final int SWEEP_BATCH = 1000;
+
+    private final StoredObjectRepository storedObjectRepository;
+    private final S3Service s3Service;
+    private final S3TransferService transferService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long sweepGraceMs;
+
+    public ContentAddressedImageStore(StoredObjectRepository storedObjectRepository,
+            S3Service s3Service,
+            S3TransferService transferService,
+            PlatformTransactionManager transactionManager,
+            @Value("${catalog.image-dedup.enabled:true}") boolean enabled,
+            @Value("${catalog.image-dedup.sweep-grace-ms:3600000}") long sweepGraceMs) {
+        this.storedObjectRepository = storedObjectRepository;
+        this.s3Service = s3Service;
+        this.transferService = transferService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.sweepGraceMs = sweepGraceMs;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public UploadedFile store(MultipartFile file) throws IOException {
+        Digest digest = digest(file);
+        String extension = digest.header()
+                .map(ImageHeader::extension)
+                .orElseGet(() -> extensionOf(file.getOriginalFilename()));
+        String contentType = digest.header()
+                .map(ImageHeader::mimeType)
+                .orElse(file.getContentType());
+        String fileKey = s3Service.contentAddressedKey(digest.sha256(), extension);
+
+        if (!storedObjectRepository.register(digest.sha256(), fileKey, contentType, file.getSize())) {
+            // Not in storage yet, swept, or a concurrent first upload is still running or failed:
+            // sending the same bytes to the same key again is harmless
+            try (InputStream in = file.getInputStream()) {
+                s3Service.uploadStream(in, file.getSize(), contentType, fileKey);
+            }
+            storedObjectRepository.markStored(digest.sha256());
+            log.info("Stored new image {}", fileKey);
+        } else {
+            log.info("Deduplicated upload onto {}", fileKey);
+        }
+        return new UploadedFile(fileKey, contentType, file.getSize(),
+                digest.header().map(ImageHeader::width).orElse(null),
+                digest.header().map(ImageHeader::height).orElse(null));
+    }
+
+    /**
+     * Stores every file on the transfer pool. Completes with the stored files in the
+     * order given.
+     */
+    public CompletableFuture<List<UploadedFile>> storeAll(List<MultipartFile> files) {
+        List<CompletableFuture<UploadedFile>> uploads = new ArrayList<>();
+        for (MultipartFile file : files) {
+            uploads.add(transferService.execute(() -> {
+                try {
+                    return store(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+        return CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> uploads.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * Takes a reference for a new image row with this URL; other URLs are ignored. Runs
+     * in the caller's transaction so the reference commits with the row insert.
+     *
+     * @throws IllegalArgumentException if the object is not (or no longer) in storage
+     */
+    @Transactional
+    public void acquire(String imageUrl) {
+        contentAddressedKey(imageUrl).ifPresent(key -> {
+            if (storedObjectRepository.acquire(key) == 0) {
+                throw new IllegalArgumentException("Stored image no longer available, upload it again: " + imageUrl);
+            }
+        });
+    }
+
+    /**
+     * Drops one reference per URL for images stored here; other URLs are ignored. Runs
+     * in the caller's transaction so the release commits with the image row delete.
+     */
+    @Transactional
+    public void release(Collection<String> imageUrls) {
+        Map<String, Long> counts = imageUrls.stream()
+                .map(this::contentAddressedKey)
+                .flatMap(Optional::stream)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        counts.forEach((key, count) -> storedObjectRepository.release(key, count.intValue()));
+    }
+
+    /**
+     * Deletes objects that have had no references for the grace period. Their stored
+     * flag is cleared and committed first, so if the final transaction fails after the
+     * objects are gone from storage, the next upload of the same content re-sends it.
+     * Rows stay locked while the objects are deleted, so such an upload waits and then
+     * re-uploads.
+     */
+    @Scheduled(fixedDelayString = "${catalog.image-dedup.sweep-interval-ms:600000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime before = LocalDateTime.now().minus(Duration.ofMillis(sweepGraceMs));
+        storedObjectRepository.retireUnreferenced(before, SWEEP_BATCH);
+        Integer deleted = transactionTemplate.execute(status -> {
+            List<StoredObject> retired = storedObjectRepository.lockRetired(before, SWEEP_BATCH);
+            if (retired.isEmpty()) {
+                return 0;
+            }
+            int count = transferService.deleteKeys(retired.stream().map(StoredObject::getFileKey).toList()).join();
+            storedObjectRepository.deleteAllInBatch(retired);
+            return count;
+        });
+        if (deleted != null && deleted > 0) {
+            log.info("Swept {} unreferenced images", deleted);
+        }
+    }
+
+    /**
+     * Resets every reference count to the number of image rows using the object.
+     */
+    @Scheduled(fixedDelayString = "${catalog.image-dedup.recount-interval-ms:86400000}")
+    @Transactional
+    public void recount() {
+        if (!enabled) {
+            return;
+        }
+        storedObjectRepository.lockForRecount();
+        int corrected = storedObjectRepository.recount();
+        if (corrected > 0) {
+            log.warn("Corrected the reference counts of {} stored images", corrected);
+        }
+    }
+
+    // -------------------- private helpers --------------------
+
+    private Optional<String> contentAddressedKey(String imageUrl) {
+        return s3Service.keyFromPublicUrl(imageUrl)
+                .filter(key -> key.startsWith(s3Service.contentAddressedPrefix()));
+    }
+
+    private record Digest(String sha256, Optional<ImageHeader> header) {
+    }
+
+    private Digest digest(MultipartFile file) throws IOException {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (InputStream in = new DigestInputStream(file.getInputStream(), sha256)) {
+            byte[] prefix = in.readNBytes(ImageHeaderSniffer.PREFIX_BYTES);
+            Optional<ImageHeader> header = ImageHeaderSniffer.sniff(prefix, prefix.length);
+            in.transferTo(OutputStream.nullOutputStream());
+            return new Digest(HexFormat.of().formatHex(sha256.digest()), header);
+        }
+    }
+
+    private String extensionOf(String fileName) {
+        if (fileName == null || !fileName.contains(".")) {
+            return "";
+        }
+        return fileName.substring(fileName.lastIndexOf(".")).toLowerCase();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.ecommerce.catalog.app;
+
+import com.example.ecommerce.catalog.domain.SlugRedirect.TargetType;
+import com.example.ecommerce.catalog.infra.BrandRepository;
+import com.example.ecommerce.catalog.infra.CategoryRepository;
+import com.example.ecommerce.catalog.infra.ProductRepository;
+import com.example.ecommerce.catalog.infra.SlugRedirectRepository;
+import com.example.ecommerce.catalog.infra.SlugRow;
+import com.example.ecommerce.common.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters of existing category, brand and product ids and slugs, including old
+ * slugs that redirect. Once a rebuild has completed, a negative answer from
+ * {@link #mightExist} is definite, so callers can reject lookups for nonexistent
+ * entities without a database round trip; until then every key might exist.
+ * <p>
+ * New entities are added as they are created; deletions are only forgotten when the
+ * filters are rebuilt. Each rebuild keeps the previous generation around, so keys
+ * added while a rebuild was reading the database are never lost.
+ */
+@Slf4j
+@Service
+public class ExistenceFilterService {
+    private static final int MIN_EXPECTED_INSERTIONS = 1024;
+
+    private final CategoryRepository categoryRepository;
+    private final BrandRepository brandRepository;
+    private final ProductRepository productRepository;
+    private final SlugRedirectRepository redirectRepository;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+
+    private final Map<TargetType, Slot> slots = new EnumMap<>(TargetType.class);
+    // One rebuild at a time, so a slow one cannot swap in a snapshot older than the last
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public ExistenceFilterService(CategoryRepository categoryRepository,
+            BrandRepository brandRepository,
+            ProductRepository productRepository,
+            SlugRedirectRepository redirectRepository,
+            @Value("${catalog.existence-filter.enabled:true}") boolean enabled,
+            @Value("${catalog.existence-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.categoryRepository = categoryRepository;
+        this.brandRepository = brandRepository;
+        this.productRepository = productRepository;
+        this.redirectRepository = redirectRepository;
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        for (TargetType type : TargetType.values()) {
+            slots.put(type, new Slot(newGeneration(MIN_EXPECTED_INSERTIONS, false)));
+        }
+    }
+
+    private record Generation(BloomFilter ids, BloomFilter slugs, boolean complete) {
+    }
+
+    private static final class Slot {
+        private volatile Generation current;
+        private volatile Generation previous;
+        private volatile Generation building;
+
+        private Slot(Generation initial) {
+            this.current = initial;
+        }
+    }
+
+    public boolean mightExist(TargetType type, UUID id) {
+        if (!enabled || id == null) {
+            return true;
+        }
+        Slot slot = slots.get(type);
+        Generation current = slot.current;
+        Generation previous = slot.previous;
+        return !current.complete() || current.ids().mightContain(id)
+                || (previous != null && previous.ids().mightContain(id));
+    }
+
+    /**
+     * Covers live slugs and old slugs that still redirect, so a negative answer means
+     * neither lookup can succeed.
+     */
+    public boolean mightExist(TargetType type, String slug) {
+        if (!enabled || slug == null) {
+            return true;
+        }
+        Slot slot = slots.get(type);
+        Generation current = slot.current;
+        Generation previous = slot.previous;
+        return !current.complete() || current.slugs().mightContain(slug)
+                || (previous != null && previous.slugs().mightContain(slug));
+    }
+
+    /**
+     * Adds a newly created entity or slug. Safe to call before the transaction commits: a
+     * rolled-back insert only costs a false positive until the next rebuild.
+     */
+    public void record(TargetType type, UUID id, String slug) {
+        Slot slot = slots.get(type);
+        add(slot.current, id, slug);
+        Generation building = slot.building;
+        if (building != null) {
+            add(building, id, slug);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.existence-filter.rebuild-interval-ms:900000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        rebuildLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            rebuild(TargetType.CATEGORY, categoryRepository.count(), categoryRepository::streamAllSlugs);
+            rebuild(TargetType.BRAND, brandRepository.count(), brandRepository::streamAllSlugs);
+            rebuild(TargetType.PRODUCT, productRepository.count(), productRepository::streamAllSlugs);
+            log.info("Existence filters rebuilt in {} ms", System.currentTimeMillis() - start);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // -------------------- private helpers --------------------
+
+    private void rebuild(TargetType type, long expected, Supplier<Stream<SlugRow>> rows) {
+        Slot slot = slots.get(type);
+        Generation next = newGeneration(Math.max(MIN_EXPECTED_INSERTIONS, expected * 2), true);
+        slot.building = next;
+        try (Stream<SlugRow> stream = Stream.concat(rows.get(), redirectRepository.streamOldSlugs(type))) {
+            stream.forEach(row -> add(next, row.getId(), row.getSlug()));
+        } catch (RuntimeException e) {
+            slot.building = null;
+            throw e;
+        }
+        slot.previous = slot.current;
+        slot.current = next;
+        slot.building = null;
+    }
+
+    private Generation newGeneration(long expectedInsertions, boolean complete) {
+        return new Generation(new BloomFilter(expectedInsertions, falsePositiveRate),
+                new BloomFilter(expectedInsertions, falsePositiveRate), complete);
+    }
+
+    private void add(Generation generation, UUID id, String slug) {
+        if (id != null) {
+            generation.ids().put(id);
+        }
+        if (slug != null) {
+            generation.slugs().put(slug);
+        }
+    }
+}
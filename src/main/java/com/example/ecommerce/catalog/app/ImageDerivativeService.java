@@ -0,0 +1,199 @@
+package com.example.ecommerce.catalog.app;
+
+import com.example.ecommerce.catalog.domain.ImageDerivativeJob;
+import com.example.ecommerce.catalog.domain.ProductImage;
+import com.example.ecommerce.catalog.infra.ImageDerivativeJobRepository;
+import com.example.ecommerce.catalog.infra.ProductImageRepository;
+import com.example.ecommerce.common.config.S3Service;
+import com.example.ecommerce.common.util.ImageResizer;
+import com.example.ecommerce.common.util.TransactionCallbacks;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates resized variants (thumbnail, gallery, zoom) of uploaded product images in
+ * the background. Originals are queued in image_derivative_jobs when they are added;
+ * a poller claims only as many jobs as there are idle workers, so the pool never
+ * builds up a backlog in memory and several nodes can share the queue.
+ * <p>
+ * Each variant is uploaded under a deterministic key and registered as a
+ * ProductImage row pointing at its original, so a retried job overwrites rather
+ * than duplicates.
+ */
+@Slf4j
+@Service
+public class ImageDerivativeService {
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final ImageDerivativeJobRepository jobRepository;
+    private final ProductImageRepository imageRepository;
+    private final ProductImageService productImageService;
+    private final S3Service s3Service;
+    private final boolean enabled;
+    private final int workers;
+    private final int maxAttempts;
+    private final Duration staleAfter;
+    private final long maxSourcePixels;
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ImageDerivativeService(ImageDerivativeJobRepository jobRepository,
+            ProductImageRepository imageRepository,
+            ProductImageService productImageService,
+            S3Service s3Service,
+            @Value("${catalog.image-derivatives.enabled:true}") boolean enabled,
+            @Value("${catalog.image-derivatives.workers:2}") int workers,
+            @Value("${catalog.image-derivatives.max-attempts:5}") int maxAttempts,
+            @Value("${catalog.image-derivatives.stale-after-ms:600000}") long staleAfterMs,
+            @Value("${catalog.image-derivatives.max-source-pixels:50000000}") long maxSourcePixels) {
+        this.jobRepository = jobRepository;
+        this.imageRepository = imageRepository;
+        this.productImageService = productImageService;
+        this.s3Service = s3Service;
+        this.enabled = enabled;
+        this.workers = Math.max(1, workers);
+        this.maxAttempts = maxAttempts;
+        this.staleAfter = Duration.ofMillis(staleAfterMs);
+        this.maxSourcePixels = maxSourcePixels;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.workers, this.workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(this.workers),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    // Resizing is CPU-bound; keep it behind request threads
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Variant widths generated for every original that is wider than them.
+     */
+    public enum Variant {
+        THUMBNAIL(200), GALLERY(800), ZOOM(1600);
+
+        private final int width;
+
+        Variant(int width) {
+            this.width = width;
+        }
+
+        public int width() {
+            return width;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.image-derivatives.poll-interval-ms:5000}")
+    @Transactional
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        int idle = workers - inFlight.get();
+        if (idle <= 0) {
+            return;
+        }
+        List<ImageDerivativeJob> jobs = jobRepository.claim(idle, staleAfter.toMillis());
+        if (jobs.isEmpty()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> jobs.forEach(job -> {
+            inFlight.incrementAndGet();
+            executor.execute(() -> run(job));
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // -------------------- private helpers --------------------
+
+    private void run(ImageDerivativeJob job) {
+        try {
+            int generated = generate(job.getSourceImageId());
+            jobRepository.release(job.getId(), ImageDerivativeJob.Status.DONE.name(), null, 0);
+            log.debug("Generated {} variants of image {}", generated, job.getSourceImageId());
+        } catch (Exception e) {
+            boolean retry = job.getAttempts() < maxAttempts && !(e instanceof UnprocessableImageException);
+            String error = String.valueOf(e.getMessage());
+            log.warn("Derivative job {} for image {} failed (attempt {}): {}", job.getId(),
+                    job.getSourceImageId(), job.getAttempts(), error);
+            jobRepository.release(job.getId(),
+                    (retry ? ImageDerivativeJob.Status.PENDING : ImageDerivativeJob.Status.FAILED).name(),
+                    error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error,
+                    backoff(job.getAttempts()).toMillis());
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private int generate(UUID sourceImageId) throws IOException {
+        ProductImage source = imageRepository.findById(sourceImageId).orElse(null);
+        if (source == null || source.isVariant()) {
+            return 0;
+        }
+        List<Variant> variants = Arrays.stream(Variant.values())
+                .filter(variant -> variant.width() < source.getWidth())
+                .toList();
+        if (variants.isEmpty()) {
+            return 0;
+        }
+        String sourceKey = s3Service.keyFromPublicUrl(source.getImageUrl())
+                .orElseThrow(() -> new UnprocessableImageException("Image is not stored in our bucket"));
+        UUID productId = source.getProduct().getId();
+
+        BufferedImage decoded;
+        try (InputStream in = s3Service.openFile(sourceKey)) {
+            decoded = ImageResizer.decode(in, variants.get(variants.size() - 1).width(), maxSourcePixels);
+        } catch (IOException e) {
+            throw new UnprocessableImageException(e.getMessage());
+        }
+
+        for (Variant variant : variants) {
+            ImageResizer.Encoded encoded = ImageResizer.resize(decoded, Math.min(variant.width(), decoded.getWidth()));
+            String key = s3Service.productImageVariantKey(productId, sourceImageId, variant.name(),
+                    encoded.extension());
+            s3Service.uploadStream(new ByteArrayInputStream(encoded.bytes()), encoded.bytes().length,
+                    encoded.mimeType(), key);
+            if (productImageService.replaceVariant(sourceImageId, variant.name(), s3Service.getPublicUrl(key),
+                    encoded.bytes().length, encoded.mimeType(), encoded.width(), encoded.height()) == null) {
+                // Original deleted while we were working; its folder is purged with the product
+                return 0;
+            }
+        }
+        return variants.size();
+    }
+
+    private Duration backoff(int attempts) {
+        return Duration.ofSeconds(30L * attempts * attempts);
+    }
+
+    // Failures that retrying cannot fix
+    private static class UnprocessableImageException extends RuntimeException {
+        UnprocessableImageException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.ecommerce.catalog.app;
+
+import com.example.ecommerce.catalog.dto.image.ImageReconciliationReportDto;
+import com.example.ecommerce.catalog.infra.ImageUrlRow;
+import com.example.ecommerce.catalog.infra.ProductImageRepository;
+import com.example.ecommerce.common.concurrent.WorkerThreads;
+import com.example.ecommerce.common.config.AwsProperties;
+import com.example.ecommerce.common.config.S3Service;
+import com.example.ecommerce.common.config.S3TransferService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Finds stored product image objects that no image row points at (left behind by
+ * failed uploads or product deletes whose cleanup failed) and image rows whose object
+ * is gone, and optionally deletes both.
+ * <p>
+ * The products folder is split into 16 shards by the first hex digit of the product
+ * id. Shards are reconciled in parallel, each as a sort-merge join of the storage
+ * listing with a byte-ordered stream of image URLs, so memory stays at one listing
+ * page and one fetch batch per shard however large the bucket is. Listing requests
+ * are rate-limited across all shards, and anything younger than the grace period is
+ * left alone since it may belong to an upload still in progress.
+ */
+@Slf4j
+@Service
+public class ImageReconciliationService {
+    private static final String SHARDS = "0123456789abcdef";
+    private static final int DELETE_BATCH = 1000;
+    private static final int MAX_SAMPLES = 100;
+
+    private final ProductImageRepository imageRepository;
+    private final S3Service s3Service;
+    private final S3TransferService transferService;
+    private final AwsProperties awsProperties;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final ThreadPoolExecutor executor;
+    private final long listIntervalNanos;
+    private final Duration grace;
+    private final long maxDeletes;
+    private final boolean scheduledDeletes;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private long nextListAt;
+
+    public ImageReconciliationService(ProductImageRepository imageRepository,
+            S3Service s3Service,
+            S3TransferService transferService,
+            AwsProperties awsProperties,
+            PlatformTransactionManager transactionManager,
+            WorkerThreads workerThreads,
+            @Value("${catalog.image-reconciliation.parallelism:4}") int parallelism,
+            @Value("${catalog.image-reconciliation.max-list-requests-per-second:10}") int maxListRequestsPerSecond,
+            @Value("${catalog.image-reconciliation.grace-ms:86400000}") long graceMs,
+            @Value("${catalog.image-reconciliation.max-deletes:10000}") long maxDeletes,
+            @Value("${catalog.image-reconciliation.delete-orphans:false}") boolean scheduledDeletes) {
+        this.imageRepository = imageRepository;
+        this.s3Service = s3Service;
+        this.transferService = transferService;
+        this.awsProperties = awsProperties;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.listIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxListRequestsPerSecond);
+        this.grace = Duration.ofMillis(graceMs);
+        this.maxDeletes = maxDeletes;
+        this.scheduledDeletes = scheduledDeletes;
+
+        int threads = Math.max(1, Math.min(parallelism, SHARDS.length()));
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                workerThreads.io("image-reconcile-"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Reconciles every shard. With {@code dryRun} nothing is deleted; otherwise at most
+     * {@code catalog.image-reconciliation.max-deletes} objects and rows are removed per
+     * run. Only one run may be in progress at a time.
+     */
+    public CompletableFuture<ImageReconciliationReportDto> reconcile(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalArgumentException("Image reconciliation is already running");
+        }
+        long started = System.nanoTime();
+        Instant cutoff = Instant.now().minus(grace);
+        AtomicLong deleteBudget = new AtomicLong(dryRun ? 0 : maxDeletes);
+
+        List<CompletableFuture<Tally>> shards = new ArrayList<>();
+        try {
+            for (char shard : SHARDS.toCharArray()) {
+                shards.add(CompletableFuture.supplyAsync(
+                        () -> reconcileShard(shard, cutoff, deleteBudget), executor));
+            }
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return CompletableFuture.allOf(shards.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    Tally total = new Tally();
+                    shards.forEach(shard -> total.add(shard.join()));
+                    ImageReconciliationReportDto report = total.toReport(dryRun,
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+                    log.info("Image reconciliation finished: {} orphaned objects, {} dangling rows, "
+                            + "{} objects and {} rows deleted", report.orphanObjects(), report.danglingRows(),
+                            report.objectsDeleted(), report.rowsDeleted());
+                    return report;
+                })
+                .whenComplete((report, error) -> running.set(false));
+    }
+
+    @Scheduled(cron = "${catalog.image-reconciliation.cron:-}")
+    public void scheduledReconcile() {
+        try {
+            reconcile(!scheduledDeletes).exceptionally(e -> {
+                log.warn("Scheduled image reconciliation failed", e);
+                return null;
+            });
+        } catch (IllegalArgumentException e) {
+            log.info("Skipping scheduled image reconciliation: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // -------------------- private helpers --------------------
+
+    private Tally reconcileShard(char shard, Instant cutoff, AtomicLong deleteBudget) {
+        String folder = awsProperties.getS3().getProductsFolder() + "/";
+        String from = s3Service.getPublicUrl(folder + shard);
+        String to = s3Service.getPublicUrl(folder + (char) (shard + 1));
+        LocalDateTime settledBefore = LocalDateTime.ofInstant(cutoff, ZoneId.systemDefault());
+
+        Tally tally = new Tally();
+        List<String> orphanKeys = new ArrayList<>();
+        List<UUID> danglingIds = new ArrayList<>();
+        readTransaction.executeWithoutResult(status -> {
+            try (Stream<ImageUrlRow> rowStream = imageRepository.streamImageUrls(from, to, settledBefore)) {
+                Iterator<S3Object> objects = listing(folder + shard);
+                Iterator<ImageUrlRow> rows = rowStream.iterator();
+                S3Object object = objects.hasNext() ? objects.next() : null;
+                ImageUrlRow row = rows.hasNext() ? rows.next() : null;
+                boolean referenced = false;
+
+                while (object != null || row != null) {
+                    int order = object == null ? 1 : row == null ? -1 : object.key().compareTo(keyOf(row));
+                    if (order == 0) {
+                        // Several rows may point at one object; the object advances only past them
+                        referenced = true;
+                        tally.rowsScanned++;
+                        row = rows.hasNext() ? rows.next() : null;
+                    } else if (order < 0) {
+                        tally.objectsScanned++;
+                        if (!referenced && object.lastModified().isBefore(cutoff)) {
+                            tally.orphan(object.key());
+                            if (deleteBudget.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                                orphanKeys.add(object.key());
+                                if (orphanKeys.size() == DELETE_BATCH) {
+                                    tally.objectsDeleted += transferService.deleteKeys(orphanKeys).join();
+                                    orphanKeys.clear();
+                                }
+                            }
+                        }
+                        referenced = false;
+                        object = objects.hasNext() ? objects.next() : null;
+                    } else {
+                        tally.rowsScanned++;
+                        if (row.getSettled()) {
+                            tally.dangling(row.getImageUrl());
+                            if (deleteBudget.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                                danglingIds.add(row.getId());
+                            }
+                        }
+                        row = rows.hasNext() ? rows.next() : null;
+                    }
+                }
+            }
+        });
+
+        if (!orphanKeys.isEmpty()) {
+            tally.objectsDeleted += transferService.deleteKeys(orphanKeys).join();
+        }
+        for (int i = 0; i < danglingIds.size(); i += DELETE_BATCH) {
+            List<UUID> batch = danglingIds.subList(i, Math.min(danglingIds.size(), i + DELETE_BATCH));
+            writeTransaction.executeWithoutResult(status -> imageRepository.deleteAllByIdInBatch(batch));
+            tally.rowsDeleted += batch.size();
+        }
+        return tally;
+    }
+
+    private Iterator<S3Object> listing(String prefix) {
+        return StreamSupport.stream(s3Service.listFilePages(prefix).spliterator(), false)
+                .peek(page -> throttle())
+                .flatMap(page -> page.contents().stream())
+                .iterator();
+    }
+
+    /**
+     * Spaces listing requests of all shards at least listIntervalNanos apart.
+     */
+    private void throttle() {
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            nextListAt = Math.max(nextListAt, now);
+            wait = nextListAt - now;
+            nextListAt += listIntervalNanos;
+        }
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while reconciling images", e);
+            }
+        }
+    }
+
+    private String keyOf(ImageUrlRow row) {
+        // Every streamed URL starts with the public URL prefix of the shard
+        return s3Service.keyFromPublicUrl(row.getImageUrl()).orElseThrow();
+    }
+
+    private static final class Tally {
+        long objectsScanned;
+        long rowsScanned;
+        long orphanObjects;
+        long danglingRows;
+        long objectsDeleted;
+        long rowsDeleted;
+        final List<String> orphanKeys = new ArrayList<>();
+        final List<String> danglingUrls = new ArrayList<>();
+
+        void orphan(String key) {
+            orphanObjects++;
+            if (orphanKeys.size() < MAX_SAMPLES) {
+                orphanKeys.add(key);
+            }
+        }
+
+        void dangling(String url) {
+            danglingRows++;
+            if (danglingUrls.size() < MAX_SAMPLES) {
+                danglingUrls.add(url);
+            }
+        }
+
+        void add(Tally other) {
+            objectsScanned += other.objectsScanned;
+            rowsScanned += other.rowsScanned;
+            objectsDeleted += other.objectsDeleted;
+            rowsDeleted += other.rowsDeleted;
+            other.orphanKeys.forEach(this::orphan);
+            other.danglingUrls.forEach(this::dangling);
+            orphanObjects += other.orphanObjects - other.orphanKeys.size();
+            danglingRows += other.danglingRows - other.danglingUrls.size();
+        }
+
+        ImageReconciliationReportDto toReport(boolean dryRun, long durationMs) {
+            return new ImageReconciliationReportDto(dryRun, objectsScanned, rowsScanned, orphanObjects,
+                    danglingRows, objectsDeleted, rowsDeleted, List.copyOf(orphanKeys),
+                    List.copyOf(danglingUrls), durationMs);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.ecommerce.catalog.app;
+
+import com.example.ecommerce.catalog.domain.Category;
+import com.example.ecommerce.catalog.domain.Product;
+import com.example.ecommerce.catalog.domain.ProductCount;
+import com.example.ecommerce.catalog.dto.common.ProductCountDto;
+import com.example.ecommerce.catalog.infra.CategoryRepository;
+import com.example.ecommerce.catalog.infra.ProductCountRepository;
+import com.example.ecommerce.catalog.infra.ProductRepository;
+import com.example.ecommerce.common.util.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps per-category (direct and subtree) and per-brand product counters in the
+ * product_counts side table and in memory, so menus never run COUNT(*) GROUP BY.
+ * <p>
+ * Writers capture a {@link Placement} before mutating a product and hand the
+ * before/after pair to {@link #recordChange}; the delta is applied to the table in
+ * the caller's transaction and to the in-memory copy after commit. A scheduled
+ * reconcile recomputes everything from the products table to correct drift.
+ */
+@Slf4j
+@Service
+public class ProductCountService {
+    private static final int MAX_CATEGORY_DEPTH = 64;
+
+    private final ProductCountRepository countRepository;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+
+    private final Map<UUID, ProductCountDto> counts = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+
+    public ProductCountService(ProductCountRepository countRepository,
+            ProductRepository productRepository,
+            CategoryRepository categoryRepository) {
+        this.countRepository = countRepository;
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Where a product currently contributes to the counters: its category followed by
+     * every ancestor, its brand, and whether it is ACTIVE.
+     */
+    public record Placement(List<UUID> categoryPath, UUID brandId, boolean active) {
+    }
+
+    public Placement placementOf(Product product) {
+        UUID brandId = product.getBrand() != null ? product.getBrand().getId() : null;
+        return new Placement(categoryPath(product.getCategory()), brandId,
+                product.getStatus() == Product.Status.ACTIVE);
+    }
+
+    public ProductCountDto getCounts(UUID ownerId) {
+        if (loaded) {
+            return counts.getOrDefault(ownerId, ProductCountDto.EMPTY);
+        }
+        return countRepository.findById(ownerId).map(this::toDto).orElse(ProductCountDto.EMPTY);
+    }
+
+    @Transactional
+    public void recordChange(Placement before, Placement after) {
+        if (before != null && before.equals(after)) {
+            return;
+        }
+        Map<UUID, ProductCountDto> categoryDeltas = new HashMap<>();
+        Map<UUID, ProductCountDto> brandDeltas = new HashMap<>();
+        accumulate(before, -1, categoryDeltas, brandDeltas);
+        accumulate(after, 1, categoryDeltas, brandDeltas);
+        applyDeltas(categoryDeltas, brandDeltas);
+    }
+
+    /**
+     * Moves the subtree counts of a re-parented category from its old ancestors to
+     * its new ones. The category's own direct and subtree counters do not change. The
+     * counts are read from its row under a lock rather than from memory, which may not
+     * have caught up with changes committed on other nodes.
+     */
+    @Transactional
+    public void recordCategoryMove(UUID categoryId, Category oldParent, Category newParent) {
+        ProductCountRepository.SubtreeCountRow current = countRepository.lockSubtreeCounts(categoryId).orElse(null);
+        if (current == null || current.getSubtreeTotal() == 0 && current.getSubtreeActive() == 0) {
+            return;
+        }
+        ProductCountDto moved = new ProductCountDto(0, 0, current.getSubtreeTotal(), current.getSubtreeActive());
+        ProductCountDto removed = new ProductCountDto(0, 0, -current.getSubtreeTotal(), -current.getSubtreeActive());
+
+        Map<UUID, ProductCountDto> categoryDeltas = new HashMap<>();
+        categoryPath(oldParent).forEach(id -> categoryDeltas.merge(id, removed, ProductCountDto::plus));
+        categoryPath(newParent).forEach(id -> categoryDeltas.merge(id, moved, ProductCountDto::plus));
+        applyDeltas(categoryDeltas, Map.of());
+    }
+
+    /**
+     * Must run before the brand row is deleted: the products cascade away in the
+     * database, so their category contributions are subtracted up front.
+     */
+    @Transactional
+    public void recordBrandRemoval(UUID brandId) {
+        Map<UUID, ProductCountDto> categoryDeltas = new HashMap<>();
+        for (ProductRepository.OwnerCountRow row : productRepository.countByCategoryForBrand(brandId,
+                Product.Status.ACTIVE)) {
+            List<UUID> path = categoryRepository.findById(row.getOwnerId())
+                    .map(this::categoryPath)
+                    .orElse(List.of());
+            for (int i = 0; i < path.size(); i++) {
+                long direct = i == 0 ? -row.getTotal() : 0;
+                long directActive = i == 0 ? -row.getActive() : 0;
+                categoryDeltas.merge(path.get(i),
+                        new ProductCountDto(direct, directActive, -row.getTotal(), -row.getActive()),
+                        ProductCountDto::plus);
+            }
+        }
+        applyDeltas(categoryDeltas, Map.of());
+        countRepository.deleteAllByIdInBatch(List.of(brandId));
+        TransactionCallbacks.afterCommit(() -> counts.remove(brandId));
+    }
+
+    /**
+     * Recomputes every counter from the products table in the database and writes only
+     * the rows that drifted, then reloads the in-memory copy. Also runs once right after
+     * startup. The counter table is locked for the duration, so deltas committed by
+     * concurrent writers are never overwritten with a stale total.
+     */
+    @Scheduled(fixedDelayString = "${catalog.product-counts.reconcile-interval-ms:600000}")
+    @Transactional
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        countRepository.lockForReconcile();
+        long written = countRepository.recomputeAll(Product.Status.ACTIVE.name(), MAX_CATEGORY_DEPTH);
+        // Read back after commit: deltas that waited for the lock are included from then on
+        TransactionCallbacks.afterCommit(this::reload);
+        log.info("Product counts reconciled in {} ms: {} rows corrected", System.currentTimeMillis() - start,
+                written);
+    }
+
+    // -------------------- private helpers --------------------
+
+    private List<UUID> categoryPath(Category category) {
+        List<UUID> path = new ArrayList<>();
+        Category current = category;
+        while (current != null && path.size() < MAX_CATEGORY_DEPTH) {
+            path.add(current.getId());
+            current = current.getParent();
+        }
+        return path;
+    }
+
+    private void accumulate(Placement placement, int sign, Map<UUID, ProductCountDto> categoryDeltas,
+            Map<UUID, ProductCountDto> brandDeltas) {
+        if (placement == null) {
+            return;
+        }
+        long total = sign;
+        long active = placement.active() ? sign : 0;
+        List<UUID> path = placement.categoryPath();
+        for (int i = 0; i < path.size(); i++) {
+            ProductCountDto delta = i == 0
+                    ? new ProductCountDto(total, active, total, active)
+                    : new ProductCountDto(0, 0, total, active);
+            categoryDeltas.merge(path.get(i), delta, ProductCountDto::plus);
+        }
+        if (placement.brandId() != null) {
+            brandDeltas.merge(placement.brandId(), new ProductCountDto(total, active, total, active),
+                    ProductCountDto::plus);
+        }
+    }
+
+    private void applyDeltas(Map<UUID, ProductCountDto> categoryDeltas, Map<UUID, ProductCountDto> brandDeltas) {
+        Map<UUID, ProductCountDto> applied = new HashMap<>();
+        increment(ProductCount.OwnerType.CATEGORY, categoryDeltas, applied);
+        increment(ProductCount.OwnerType.BRAND, brandDeltas, applied);
+        if (!applied.isEmpty()) {
+            TransactionCallbacks.afterCommit(
+                    () -> applied.forEach((id, delta) -> counts.merge(id, delta, ProductCountDto::plus)));
+        }
+    }
+
+    private void increment(ProductCount.OwnerType type, Map<UUID, ProductCountDto> deltas,
+            Map<UUID, ProductCountDto> applied) {
+        deltas.forEach((ownerId, delta) -> {
+            if (delta.isZero()) {
+                return;
+            }
+            countRepository.increment(ownerId, type.name(), delta.productCount(), delta.activeProductCount(),
+                    delta.subtreeProductCount(), delta.subtreeActiveProductCount());
+            applied.put(ownerId, delta);
+        });
+    }
+
+    private void reload() {
+        Map<UUID, ProductCountDto> current = new HashMap<>();
+        countRepository.findAll().forEach(row -> current.put(row.getOwnerId(), toDto(row)));
+        counts.keySet().retainAll(current.keySet());
+        counts.putAll(current);
+        loaded = true;
+    }
+
+    private ProductCountDto toDto(ProductCount count) {
+        return new ProductCountDto(count.getProductCount(), count.getActiveProductCount(),
+                count.getSubtreeProductCount(), count.getSubtreeActiveProductCount());
+    }
+}
@@ -1,12 +1,14 @@
 package com.example.ecommerce.catalog.app;
 
 import jakarta.persistence.EntityNotFoundException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.example.ecommerce.catalog.domain.Product;
@@ -14,20 +16,42 @@ import com.example.ecommerce.catalog.domain.ProductImage;
 import com.example.ecommerce.catalog.dto.image.ImageOrderRequestDto;
 import com.example.ecommerce.catalog.dto.image.ProductImageRequestDto;
 import com.example.ecommerce.catalog.dto.image.ProductImageResponseDto;
+import com.example.ecommerce.catalog.infra.ImageDerivativeJobRepository;
+import com.example.ecommerce.catalog.infra.ListingImageRow;
 import com.example.ecommerce.catalog.infra.ProductImageRepository;
 import com.example.ecommerce.catalog.infra.ProductRepository;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class ProductImageService {
     private final ProductImageRepository imageRepository;
     private final ProductRepository productRepository;
+    private final ImageDerivativeJobRepository derivativeJobRepository;
+    private final ContentAddressedImageStore imageStore;
+    private final boolean derivativesEnabled;
+    private final int listingImageWidth;
+
+    public ProductImageService(ProductImageRepository imageRepository,
+            ProductRepository productRepository,
+            ImageDerivativeJobRepository derivativeJobRepository,
+            ContentAddressedImageStore imageStore,
+            @Value("${catalog.image-derivatives.enabled:true}") boolean derivativesEnabled,
+            @Value("${catalog.images.listing-width:300}") int listingImageWidth) {
+        this.imageRepository = imageRepository;
+        this.productRepository = productRepository;
+        this.derivativeJobRepository = derivativeJobRepository;
+        this.imageStore = imageStore;
+        this.derivativesEnabled = derivativesEnabled;
+        this.listingImageWidth = listingImageWidth;
+    }
 
     public ProductImageResponseDto addImageToProduct(ProductImageRequestDto request) {
         Product product = productRepository.findById(request.productId())
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + request.productId()));
+        if (request.fileSize() == null || request.width() == null || request.height() == null) {
+            throw new IllegalArgumentException("File size, width and height are required");
+        }
 
         ProductImage image = new ProductImage.Builder()
                 .imageUrl(request.imageUrl())
@@ -41,7 +65,14 @@ public class ProductImageService {
                 .dimensions(request.width(), request.height())
                 .build();
 
+        imageStore.acquire(request.imageUrl());
         ProductImage savedImage = imageRepository.save(image);
+        if (savedImage.isPrimary()) {
+            imageRepository.swapPrimary(request.productId(), savedImage.getId());
+        }
+        if (derivativesEnabled) {
+            derivativeJobRepository.enqueue(savedImage.getId());
+        }
         log.info("Image added successfully to product: {}", request.productId());
 
         return mapToDto(savedImage);
@@ -60,54 +91,119 @@ public class ProductImageService {
                 .collect(Collectors.toList());
     }
 
-    public List<ProductImageResponseDto> setPrimaryImage(UUID productId, UUID imageId) {
-        if (!productRepository.existsById(productId)) {
-            throw new EntityNotFoundException("Product not found with id: " + productId);
-        }
-
-        ProductImage image = imageRepository.findByIdAndProductId(imageId, productId)
+    @Transactional(readOnly = true)
+    public ProductImageResponseDto getProductImage(UUID productId, UUID imageId) {
+        return imageRepository.findByIdAndProductId(imageId, productId)
+                .map(this::mapToDto)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Image not found with id: " + imageId + " for product: " + productId));
+    }
 
-        image.markAsPrimary();
-        imageRepository.save(image);
+    public List<ProductImageResponseDto> setPrimaryImage(UUID productId, UUID imageId) {
+        List<ProductImage> images = imageRepository.swapPrimary(productId, imageId);
+        if (images.isEmpty()) {
+            throw new EntityNotFoundException(
+                    "Image not found with id: " + imageId + " for product: " + productId);
+        }
 
         log.info("Image {} set as primary for product: {}", imageId, productId);
 
-        return getProductImages(productId);
+        return images.stream()
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
     }
 
     public List<ProductImageResponseDto> reorderImages(UUID productId, ImageOrderRequestDto request) {
-        if (!productRepository.existsById(productId)) {
-            throw new EntityNotFoundException("Product not found with id: " + productId);
-        }
-
         Map<UUID, Integer> orderMap = request.getImageOrders().stream()
                 .collect(Collectors.toMap(
                         ImageOrderRequestDto.ImageOrder::getImageId,
                         ImageOrderRequestDto.ImageOrder::getDisplayOrder
                 ));
 
-        List<ProductImage> images = imageRepository.findAllById(orderMap.keySet());
-
-        for (ProductImage image : images) {
-            if (!image.getProduct().getId().equals(productId)) {
-                throw new IllegalArgumentException(
-                        "Image " + image.getId() + " does not belong to product: " + productId);
-            }
+        List<ProductImage> images = imageRepository.reorder(productId, orderMap);
+        // A product without images also comes back empty
+        if (images.isEmpty() && !productRepository.existsById(productId)) {
+            throw new EntityNotFoundException("Product not found with id: " + productId);
         }
 
-        images.forEach(image -> {
-            Integer newOrder = orderMap.get(image.getId());
-            if (newOrder != null) {
-                image.updateDisplayOrder(newOrder);
-            }
-        });
+        // Rows of other products are never updated; any missing id rolls the whole reorder back
+        long matched = images.stream().filter(image -> orderMap.containsKey(image.getId())).count();
+        if (matched != orderMap.size()) {
+            throw new IllegalArgumentException(
+                    "One or more images do not belong to product: " + productId);
+        }
 
-        imageRepository.saveAll(images);
         log.info("Images reordered successfully for product: {}", productId);
 
-        return getProductImages(productId);
+        return images.stream()
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Picks, per product, the URL of the smallest variant of its primary image that is
+     * at least the listing width wide, falling back to the widest one available.
+     * Products without a primary image are absent from the result.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, String> getListingImageUrls(Collection<UUID> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, ListingImageRow> best = new HashMap<>();
+        for (ListingImageRow row : imageRepository.findListingImages(productIds)) {
+            best.merge(row.getProductId(), row, this::better);
+        }
+        Map<UUID, String> urls = new HashMap<>();
+        best.forEach((productId, row) -> urls.put(productId, row.getImageUrl()));
+        return urls;
+    }
+
+    /**
+     * Registers a generated variant of an original image, replacing any earlier variant
+     * of the same type. Returns null when the original was deleted in the meantime.
+     */
+    public ProductImage replaceVariant(UUID sourceImageId, String imageType, String imageUrl, long fileSize,
+            String mimeType, int width, int height) {
+        ProductImage source = imageRepository.findById(sourceImageId).orElse(null);
+        if (source == null) {
+            return null;
+        }
+        List<ProductImage> replaced = imageRepository.findBySourceImageId(sourceImageId).stream()
+                .filter(variant -> imageType.equals(variant.getImageType()))
+                .toList();
+        imageRepository.deleteAll(replaced);
+        imageStore.release(replaced.stream().map(ProductImage::getImageUrl).toList());
+
+        ProductImage variant = new ProductImage.Builder()
+                .imageUrl(imageUrl)
+                .product(source.getProduct())
+                .isPrimary(false)
+                .displayOrder(source.getDisplayOrder())
+                .altText(source.getAltText())
+                .imageType(imageType)
+                .fileSize(fileSize)
+                .mimeType(mimeType)
+                .dimensions(width, height)
+                .sourceImageId(sourceImageId)
+                .build();
+        imageStore.acquire(imageUrl);
+        return imageRepository.save(variant);
+    }
+
+    /**
+     * Releases the stored-object references of every image of the product. Must run
+     * in the transaction that deletes the product, before its images cascade away.
+     */
+    public void releaseStoredImages(UUID productId) {
+        imageStore.release(imageRepository.findImageUrlsByProductId(productId));
+    }
+
+    /**
+     * Same for every product of the brand, whose rows cascade away with the brand.
+     */
+    public void releaseBrandStoredImages(UUID brandId) {
+        imageStore.release(imageRepository.findImageUrlsByBrandId(brandId));
     }
 
     public void deleteProductImage(UUID productId, UUID imageId) {
@@ -116,10 +212,24 @@ public class ProductImageService {
                         "Image not found with id: " + imageId + " for product: " + productId));
 
         imageRepository.delete(image);
+        imageStore.release(List.of(image.getImageUrl()));
         log.info("Image {} deleted successfully from product: {}", imageId, productId);
     }
 
-    private ProductImageResponseDto mapToDto(ProductImage image) {
+    private ListingImageRow better(ListingImageRow current, ListingImageRow candidate) {
+        int currentWidth = current.getWidth() != null ? current.getWidth() : 0;
+        int candidateWidth = candidate.getWidth() != null ? candidate.getWidth() : 0;
+        boolean currentFits = currentWidth >= listingImageWidth;
+        boolean candidateFits = candidateWidth >= listingImageWidth;
+        if (currentFits != candidateFits) {
+            return candidateFits ? candidate : current;
+        }
+        // Both adequate: prefer the smaller one; both too small: prefer the larger one
+        boolean candidateSmaller = candidateWidth < currentWidth;
+        return currentFits == candidateSmaller ? candidate : current;
+    }
+
+    ProductImageResponseDto mapToDto(ProductImage image) {
         return ProductImageResponseDto.builder()
                 .id(image.getId())
                 .imageUrl(image.getImageUrl())
@@ -133,6 +243,7 @@ public class ProductImageService {
                 .width(image.getWidth())
                 .height(image.getHeight())
                 .aspectRatio(image.getAspectRatio())
+                .sourceImageId(image.getSourceImageId())
                 .createdAt(image.getCreatedAt())
                 .updatedAt(image.getUpdatedAt())
                 .build();
@@ -0,0 +1,181 @@
+package com.example.ecommerce.catalog.app;
+
+import com.example.ecommerce.catalog.domain.SlugRedirect.TargetType;
+import com.example.ecommerce.catalog.dto.image.FinalizeUploadRequestDto;
+import com.example.ecommerce.catalog.dto.image.ProductImageRequestDto;
+import com.example.ecommerce.catalog.dto.image.ProductImageResponseDto;
+import com.example.ecommerce.catalog.dto.image.UploadSlotRequestDto;
+import com.example.ecommerce.catalog.dto.image.UploadSlotResponseDto;
+import com.example.ecommerce.common.config.AwsProperties;
+import com.example.ecommerce.common.config.S3Service;
+import com.example.ecommerce.common.config.UploadedFile;
+import com.example.ecommerce.common.exception.ResourceNotFoundException;
+import com.example.ecommerce.common.util.ImageHeaderSniffer;
+import com.example.ecommerce.common.util.ImageHeaderSniffer.ImageHeader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Two-phase direct upload of product images: the client asks for a presigned slot,
+ * PUTs the bytes straight to storage, then finalizes. Image payloads never pass
+ * through the application servers; finalize only reads the stored object's metadata
+ * and the first bytes of its header before creating the ProductImage row.
+ * <p>
+ * Deliberately not transactional: the storage calls happen outside any database
+ * transaction and only the final insert runs in one.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImageUploadService {
+    private final S3Service s3Service;
+    private final ProductImageService productImageService;
+    private final ExistenceFilterService existenceFilter;
+    private final ContentAddressedImageStore imageStore;
+    private final AwsProperties awsProperties;
+
+    public UploadSlotResponseDto createUploadSlot(UUID productId, UploadSlotRequestDto request) {
+        if (!existenceFilter.mightExist(TargetType.PRODUCT, productId)) {
+            throw ResourceNotFoundException.PRODUCT;
+        }
+        String contentType = normalize(request.contentType());
+        checkConstraints(contentType, request.contentLength());
+
+        Duration expiration = awsProperties.getS3().getUploadSlotExpiration();
+        String fileKey = s3Service.newProductImageKey(request.fileName(), productId);
+        String uploadUrl = s3Service.generatePresignedUploadUrl(fileKey, contentType, request.contentLength(),
+                expiration);
+        return new UploadSlotResponseDto(
+                fileKey,
+                uploadUrl,
+                Map.of("Content-Type", contentType, "Content-Length", String.valueOf(request.contentLength())),
+                awsProperties.getS3().getMaxImageSize().toBytes(),
+                Instant.now().plus(expiration));
+    }
+
+    /**
+     * Verifies that the object was uploaded within the slot's constraints and registers
+     * it as an image of the product. Objects that violate the constraints are deleted.
+     */
+    public ProductImageResponseDto finalizeUpload(UUID productId, FinalizeUploadRequestDto request) {
+        ProductImageResponseDto created = productImageService.addImageToProduct(verifyUpload(productId, request));
+        log.info("Direct upload {} finalized for product: {}", request.fileKey(), productId);
+        return created;
+    }
+
+    /**
+     * The storage half of {@link #finalizeUpload}: checks the uploaded object and returns
+     * the image to create. Shared with ResumableUploadService.
+     */
+    ProductImageRequestDto verifyUpload(UUID productId, FinalizeUploadRequestDto request) {
+        String fileKey = request.fileKey();
+        if (!fileKey.startsWith(s3Service.productImagePrefix(productId)) || fileKey.contains("..")) {
+            throw new IllegalArgumentException("File key does not belong to product: " + productId);
+        }
+        HeadObjectResponse head = s3Service.headObject(fileKey)
+                .orElseThrow(() -> new IllegalArgumentException("No uploaded file found for key: " + fileKey));
+
+        ImageHeader header;
+        try {
+            // The signed content type only proves what the client declared; the bytes decide
+            header = sniff(fileKey, head.contentLength())
+                    .orElseThrow(() -> new IllegalArgumentException("Uploaded file is not a supported image"));
+            checkConstraints(header.mimeType(), head.contentLength());
+        } catch (IllegalArgumentException e) {
+            s3Service.deleteFile(fileKey);
+            throw e;
+        }
+
+        return new ProductImageRequestDto(
+                productId,
+                s3Service.getPublicUrl(fileKey),
+                request.isPrimary(),
+                request.displayOrder(),
+                request.altText(),
+                request.imageType(),
+                head.contentLength(),
+                header.mimeType(),
+                header.hasDimensions() ? header.width() : request.width(),
+                header.hasDimensions() ? header.height() : request.height());
+    }
+
+    /**
+     * Uploads an image through this server, deduplicated by content when enabled.
+     */
+    public UploadedFile upload(MultipartFile file, UUID productId) throws IOException {
+        return imageStore.isEnabled() ? imageStore.store(file) : s3Service.uploadProductImage(file, productId);
+    }
+
+    public CompletableFuture<List<UploadedFile>> uploadAll(List<MultipartFile> files, UUID productId) {
+        return imageStore.isEnabled() ? imageStore.storeAll(files) : s3Service.uploadProductImages(files, productId);
+    }
+
+    /**
+     * Adds an image by URL. For files in our own bucket, size, MIME type and
+     * dimensions are read from storage instead of trusting the request.
+     */
+    public ProductImageResponseDto addImage(ProductImageRequestDto request) {
+        String fileKey = s3Service.keyFromPublicUrl(request.imageUrl()).orElse(null);
+        if (fileKey == null) {
+            return productImageService.addImageToProduct(request);
+        }
+        HeadObjectResponse head = s3Service.headObject(fileKey)
+                .orElseThrow(() -> new IllegalArgumentException("No stored file found for URL: " + request.imageUrl()));
+        ImageHeader header = sniff(fileKey, head.contentLength())
+                .orElseThrow(() -> new IllegalArgumentException("Stored file is not a supported image"));
+
+        return productImageService.addImageToProduct(new ProductImageRequestDto(
+                request.productId(),
+                request.imageUrl(),
+                request.isPrimary(),
+                request.displayOrder(),
+                request.altText(),
+                request.imageType(),
+                head.contentLength(),
+                header.mimeType(),
+                header.hasDimensions() ? header.width() : request.width(),
+                header.hasDimensions() ? header.height() : request.height()));
+    }
+
+    /**
+     * Rejects content types outside aws.s3.allowed-image-types and sizes above
+     * aws.s3.max-image-size. Shared with ResumableUploadService.
+     */
+    void checkConstraints(String contentType, Long contentLength) {
+        if (contentType == null || !awsProperties.getS3().getAllowedImageTypes().contains(contentType)) {
+            throw new IllegalArgumentException("Unsupported image type: " + contentType);
+        }
+        long maxSize = awsProperties.getS3().getMaxImageSize().toBytes();
+        if (contentLength == null || contentLength <= 0 || contentLength > maxSize) {
+            throw new IllegalArgumentException("Image size must be between 1 and " + maxSize + " bytes");
+        }
+    }
+
+    // -------------------- private helpers --------------------
+
+    private Optional<ImageHeader> sniff(String fileKey, long contentLength) {
+        int length = (int) Math.min(ImageHeaderSniffer.PREFIX_BYTES, contentLength);
+        if (length <= 0) {
+            return Optional.empty();
+        }
+        byte[] prefix = s3Service.readFileHead(fileKey, length);
+        return ImageHeaderSniffer.sniff(prefix, prefix.length);
+    }
+
+    private String normalize(String contentType) {
+        return contentType == null ? null : contentType.trim().toLowerCase(Locale.ROOT);
+    }
+}
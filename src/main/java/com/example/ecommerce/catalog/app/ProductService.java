@@ -3,20 +3,27 @@ package com.example.ecommerce.catalog.app;
 import com.example.ecommerce.catalog.domain.Brand;
 import com.example.ecommerce.catalog.domain.Category;
 import com.example.ecommerce.catalog.domain.Product;
+import com.example.ecommerce.catalog.domain.SlugRedirect;
 import com.example.ecommerce.catalog.dto.category.PageResponseDto;
 import com.example.ecommerce.catalog.dto.product.CreateProductResponseDto;
 import com.example.ecommerce.catalog.dto.product.PaginatedProductListResponseDto;
 import com.example.ecommerce.catalog.dto.product.PartialProductUpdateRequestDto;
 import com.example.ecommerce.catalog.dto.product.SearchProductResponseDto;
 import com.example.ecommerce.catalog.dto.product.UpdateProductRequestDto;
+import com.example.ecommerce.catalog.dto.slug.SlugResolutionDto;
 import com.example.ecommerce.catalog.infra.BrandRepository;
 import com.example.ecommerce.catalog.infra.CategoryRepository;
 import com.example.ecommerce.catalog.infra.ProductRepository;
+import com.example.ecommerce.common.config.S3Service;
+import com.example.ecommerce.common.exception.ResourceNotFoundException;
 import com.example.ecommerce.common.specification.ProductSpecifications;
+import com.example.ecommerce.common.util.TransactionCallbacks;
 import jakarta.persistence.EntityNotFoundException;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.coyote.BadRequestException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -26,20 +33,36 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+@Slf4j
 @Service
 @Transactional
 public class ProductService {
         private final ProductRepository productRepository;
         private final CategoryRepository categoryRepository;
         private final BrandRepository brandRepository;
+        private final ProductCountService productCountService;
+        private final SlugRouterService slugRouter;
+        private final ExistenceFilterService existenceFilter;
+        private final S3Service s3Service;
+        private final ProductImageService productImageService;
 
         public ProductService(
                         ProductRepository productRepository,
                         CategoryRepository categoryRepository,
-                        BrandRepository brandRepository) {
+                        BrandRepository brandRepository,
+                        ProductCountService productCountService,
+                        SlugRouterService slugRouter,
+                        ExistenceFilterService existenceFilter,
+                        S3Service s3Service,
+                        ProductImageService productImageService) {
                 this.productRepository = productRepository;
                 this.categoryRepository = categoryRepository;
                 this.brandRepository = brandRepository;
+                this.productCountService = productCountService;
+                this.slugRouter = slugRouter;
+                this.existenceFilter = existenceFilter;
+                this.s3Service = s3Service;
+                this.productImageService = productImageService;
         }
 
         public CreateProductResponseDto createProduct(
@@ -82,6 +105,11 @@ public class ProductService {
                                 .build();
 
                 Product createdProduct = productRepository.save(product);
+                productCountService.recordChange(null, productCountService.placementOf(createdProduct));
+                slugRouter.register(SlugRedirect.TargetType.PRODUCT, createdProduct.getId(),
+                                createdProduct.getSlug());
+                existenceFilter.record(SlugRedirect.TargetType.PRODUCT, createdProduct.getId(),
+                                createdProduct.getSlug());
 
                 return new CreateProductResponseDto(
                                 createdProduct.getId(),
@@ -91,12 +119,15 @@ public class ProductService {
                                 createdProduct.getStatus());
         }
 
+        @Transactional(readOnly = true)
         public PageResponseDto<PaginatedProductListResponseDto> getPaginatedProducts(
                         int page, int size) {
                 Pageable pageable = PageRequest.of(page, size);
                 Page<Product> productsPage = productRepository.findAll(pageable);
+                Map<UUID, String> listingImages = listingImagesOf(productsPage.getContent());
                 List<PaginatedProductListResponseDto> productData = productsPage.getContent().stream()
-                                .map(this::toPaginatedProductsDto).toList();
+                                .map(product -> toPaginatedProductsDto(product, listingImages.get(product.getId())))
+                                .toList();
                 return new PageResponseDto<>(
                                 productData,
                                 productsPage.getNumber(),
@@ -106,16 +137,29 @@ public class ProductService {
                                 productsPage.isLast());
         }
 
+        @Transactional(readOnly = true)
+        public Product getProductBySlug(String slug) {
+                UUID id = slugRouter.resolve(SlugRedirect.TargetType.PRODUCT, slug)
+                                .map(SlugResolutionDto::id)
+                                .orElseThrow(() -> ResourceNotFoundException.PRODUCT);
+                return getProductById(id);
+        }
+
+        @Transactional(readOnly = true)
         public Product getProductById(UUID id) {
+                if (!existenceFilter.mightExist(SlugRedirect.TargetType.PRODUCT, id)) {
+                        throw ResourceNotFoundException.PRODUCT;
+                }
                 return productRepository
                                 .findById(id)
-                                .orElseThrow(() -> new IllegalArgumentException("Product not found"));
+                                .orElseThrow(() -> ResourceNotFoundException.PRODUCT);
         }
 
         public Product putProduct(UUID id, UpdateProductRequestDto payload) {
                 Product currentProduct = productRepository
                                 .findById(id)
                                 .orElseThrow(() -> new EntityNotFoundException("Product not found: " + id));
+                ProductCountService.Placement before = productCountService.placementOf(currentProduct);
 
                 Brand brand = brandRepository
                                 .findById(payload.brandId())
@@ -140,6 +184,7 @@ public class ProductService {
                 currentProduct.updateSize(payload.size());
                 currentProduct.updateSku(payload.sku());
 
+                productCountService.recordChange(before, productCountService.placementOf(currentProduct));
                 return productRepository.save(currentProduct);
         }
 
@@ -147,6 +192,7 @@ public class ProductService {
                 Product currentProduct = productRepository
                                 .findById(id)
                                 .orElseThrow(() -> new EntityNotFoundException("Product not found: " + id));
+                ProductCountService.Placement before = productCountService.placementOf(currentProduct);
 
                 if (payload.brandId() != null) {
                         Brand brand = brandRepository
@@ -179,6 +225,7 @@ public class ProductService {
                 updateIfPresent(payload.size(), currentProduct::updateSize);
                 updateIfPresent(payload.sku(), currentProduct::updateSku);
 
+                productCountService.recordChange(before, productCountService.placementOf(currentProduct));
                 return productRepository.save(currentProduct);
         }
 
@@ -199,23 +246,42 @@ public class ProductService {
                                 .orElseThrow(
                                                 () -> new EntityNotFoundException(
                                                                 "Category not found: " + catergoryId));
+                ProductCountService.Placement before = productCountService.placementOf(product);
                 product.assignToCategory(category);
+                productCountService.recordChange(before, productCountService.placementOf(product));
                 return product;
         }
 
+        public Boolean deleteProduct(UUID id) {
+                Product product = productRepository
+                                .findById(id)
+                                .orElseThrow(() -> new EntityNotFoundException("Product not found: " + id));
+                ProductCountService.Placement before = productCountService.placementOf(product);
+                productImageService.releaseStoredImages(id);
+                productRepository.delete(product);
+                productCountService.recordChange(before, null);
+                slugRouter.unregister(SlugRedirect.TargetType.PRODUCT, product.getId(), product.getSlug());
+                // Storage is purged in the background once the rows are gone; leftovers are
+                // harmless and a failure must not undo the delete.
+                TransactionCallbacks.afterCommit(() -> s3Service.deleteAllProductImages(id)
+                                .exceptionally(e -> {
+                                        log.warn("Failed to purge images of deleted product {}: {}", id,
+                                                        e.getMessage());
+                                        return 0;
+                                }));
+                return true;
+        }
+
+        @Transactional(readOnly = true)
         public PageResponseDto<SearchProductResponseDto> searchProducts(
                         String searchQuery, boolean inStock, int page, int limit, String sort) {
                 Pageable pageable = PageRequest.of(page, limit, Sort.by(sort));
-                Specification<Product> spec = Specification.where(null);
-
-                if (searchQuery != null && !searchQuery.isBlank()) {
-                        spec = spec.and(ProductSpecifications.hasNameOrDescriptionLike(searchQuery));
-                }
-                if (inStock) {
-                        spec = spec.and(ProductSpecifications.isInStock(true));
-                }
-                Page<Product> productPage = productRepository.findAll(spec, pageable);
-                List<SearchProductResponseDto> dtoList = productPage.getContent().stream().map(this::toDto).toList();
+                Page<Product> productPage = productRepository.findAll(searchSpecification(searchQuery, inStock),
+                                pageable);
+                Map<UUID, String> listingImages = listingImagesOf(productPage.getContent());
+                List<SearchProductResponseDto> dtoList = productPage.getContent().stream()
+                                .map(product -> toDto(product, listingImages.get(product.getId())))
+                                .toList();
 
                 return new PageResponseDto<>(
                                 dtoList,
@@ -228,7 +294,23 @@ public class ProductService {
 
         // -------------------- private helpers --------------------
 
-        private SearchProductResponseDto toDto(Product product) {
+        static Specification<Product> searchSpecification(String searchQuery, boolean inStock) {
+                Specification<Product> spec = Specification.where(null);
+                if (searchQuery != null && !searchQuery.isBlank()) {
+                        spec = spec.and(ProductSpecifications.hasNameOrDescriptionLike(searchQuery));
+                }
+                if (inStock) {
+                        spec = spec.and(ProductSpecifications.isInStock(true));
+                }
+                return spec;
+        }
+
+        // One query per page for the listing image of every product on it
+        private Map<UUID, String> listingImagesOf(List<Product> products) {
+                return productImageService.getListingImageUrls(products.stream().map(Product::getId).toList());
+        }
+
+        SearchProductResponseDto toDto(Product product, String listingImageUrl) {
                 return new SearchProductResponseDto(
                                 product.getId(),
                                 product.getProductName(),
@@ -236,10 +318,11 @@ public class ProductService {
                                 product.getPrice(),
                                 product.getStockQuantity(),
                                 product.getStatus(),
-                                product.getPrimaryImage());
+                                product.getPrimaryImage(),
+                                listingImageUrl);
         }
 
-        private PaginatedProductListResponseDto toPaginatedProductsDto(Product product) {
+        PaginatedProductListResponseDto toPaginatedProductsDto(Product product, String listingImageUrl) {
                 return new PaginatedProductListResponseDto(
                                 product.getId(),
                                 product.getProductName(),
@@ -250,6 +333,7 @@ public class ProductService {
                                 product.getSize(),
                                 product.getSku(),
                                 product.getBrand().getName(),
+                                listingImageUrl,
                                 product.getCreatedAt(),
                                 product.getUpdatedAt());
         }
@@ -0,0 +1,226 @@
+package com.example.ecommerce.catalog.app;
+
+import com.example.ecommerce.catalog.domain.SlugRedirect.TargetType;
+import com.example.ecommerce.catalog.domain.UploadSession;
+import com.example.ecommerce.catalog.dto.image.CompleteUploadRequestDto;
+import com.example.ecommerce.catalog.dto.image.FinalizeUploadRequestDto;
+import com.example.ecommerce.catalog.dto.image.ProductImageRequestDto;
+import com.example.ecommerce.catalog.dto.image.ProductImageResponseDto;
+import com.example.ecommerce.catalog.dto.image.UploadSessionDto;
+import com.example.ecommerce.catalog.dto.image.UploadSlotRequestDto;
+import com.example.ecommerce.catalog.infra.UploadSessionRepository;
+import com.example.ecommerce.common.config.S3Service;
+import com.example.ecommerce.common.exception.ResourceNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Resumable image uploads on top of S3 multipart upload. A session fixes the chunk
+ * size up front; chunk n (at offset n * chunkSize) is streamed straight into part
+ * n + 1, so a dropped connection costs at most one chunk. Session and part state
+ * live in the database, so any node can accept the next chunk or complete the
+ * upload. Sessions idle past their expiry are aborted to reclaim the stored parts.
+ * <p>
+ * Completion is retryable: the session is COMPLETING while the parts are assembled,
+ * goes back to OPEN if that fails, and becomes COMPLETED in the transaction that
+ * inserts the image row. Completing a completed session returns the same image.
+ */
+@Slf4j
+@Service
+public class ResumableUploadService {
+    // S3 rejects parts below 5 MiB, except the last, and uploads above 10,000 parts
+    private static final int MIN_CHUNK_SIZE = 5 * 1024 * 1024;
+    private static final int MAX_PARTS = 10_000;
+    private static final int EXPIRY_BATCH = 100;
+
+    private final UploadSessionRepository sessionRepository;
+    private final S3Service s3Service;
+    private final ProductImageUploadService productImageUploadService;
+    private final ProductImageService productImageService;
+    private final ExistenceFilterService existenceFilter;
+    private final TransactionTemplate writeTransaction;
+    private final int chunkSize;
+    private final Duration sessionTtl;
+    private final long completionTimeoutMs;
+
+    public ResumableUploadService(UploadSessionRepository sessionRepository,
+            S3Service s3Service,
+            ProductImageUploadService productImageUploadService,
+            ProductImageService productImageService,
+            ExistenceFilterService existenceFilter,
+            PlatformTransactionManager transactionManager,
+            @Value("${catalog.resumable-uploads.chunk-size-bytes:8388608}") int chunkSize,
+            @Value("${catalog.resumable-uploads.session-ttl-ms:86400000}") long sessionTtlMs,
+            @Value("${catalog.resumable-uploads.completion-timeout-ms:600000}") long completionTimeoutMs) {
+        this.sessionRepository = sessionRepository;
+        this.s3Service = s3Service;
+        this.productImageUploadService = productImageUploadService;
+        this.productImageService = productImageService;
+        this.existenceFilter = existenceFilter;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(MIN_CHUNK_SIZE, chunkSize);
+        this.sessionTtl = Duration.ofMillis(sessionTtlMs);
+        this.completionTimeoutMs = completionTimeoutMs;
+    }
+
+    public UploadSessionDto createSession(UUID productId, UploadSlotRequestDto request) {
+        if (!existenceFilter.mightExist(TargetType.PRODUCT, productId)) {
+            throw ResourceNotFoundException.PRODUCT;
+        }
+        String contentType = request.contentType().trim().toLowerCase(Locale.ROOT);
+        productImageUploadService.checkConstraints(contentType, request.contentLength());
+        if ((request.contentLength() + chunkSize - 1) / chunkSize > MAX_PARTS) {
+            throw new IllegalArgumentException("File too large for chunk size " + chunkSize);
+        }
+
+        String fileKey = s3Service.newProductImageKey(request.fileName(), productId);
+        String uploadId = s3Service.createMultipartUpload(fileKey, contentType);
+        UploadSession session = sessionRepository.save(new UploadSession(productId, fileKey, uploadId, contentType,
+                request.contentLength(), chunkSize, LocalDateTime.now().plus(sessionTtl)));
+        log.info("Resumable upload {} started for product: {}", session.getId(), productId);
+        return toDto(session, List.of());
+    }
+
+    /**
+     * Streams one chunk into its multipart part. Chunks may be re-sent (the part is
+     * replaced) and may arrive in any order.
+     */
+    public UploadSessionDto writeChunk(UUID sessionId, long offset, long length, InputStream body) {
+        UploadSession session = openSession(sessionId);
+        if (offset < 0 || offset >= session.getTotalSize() || offset % session.getChunkSize() != 0) {
+            throw new IllegalArgumentException("Offset must be a multiple of " + session.getChunkSize()
+                    + " below " + session.getTotalSize());
+        }
+        long expected = Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+        if (length != expected) {
+            throw new IllegalArgumentException("Chunk at offset " + offset + " must be " + expected + " bytes");
+        }
+
+        int partNumber = (int) (offset / session.getChunkSize()) + 1;
+        String eTag = s3Service.uploadPart(session.getFileKey(), session.getUploadId(), partNumber, body, length);
+        sessionRepository.recordPart(sessionId, partNumber, eTag, length, LocalDateTime.now().plus(sessionTtl));
+        return getStatus(sessionId);
+    }
+
+    @Transactional(readOnly = true)
+    public UploadSessionDto getStatus(UUID sessionId) {
+        UploadSession session = sessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Upload session not found: " + sessionId));
+        return toDto(session, sessionRepository.findParts(sessionId));
+    }
+
+    /**
+     * Assembles the parts into the final object and adds it as an image of the product.
+     * Safe to retry after a failure or a lost response.
+     */
+    public ProductImageResponseDto complete(UUID sessionId, CompleteUploadRequestDto request) {
+        UploadSession session = sessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Upload session not found: " + sessionId));
+        if (session.getStatus() == UploadSession.Status.COMPLETED) {
+            return productImageService.getProductImage(session.getProductId(), session.getImageId());
+        }
+        if (session.getStatus() == UploadSession.Status.OPEN && !session.isOpen()) {
+            throw new IllegalArgumentException("Upload session is no longer open: " + sessionId);
+        }
+        List<UploadSessionRepository.PartRow> parts = sessionRepository.findParts(sessionId);
+        if (parts.size() != session.chunkCount()) {
+            throw new IllegalArgumentException("Upload incomplete: received " + parts.size() + " of "
+                    + session.chunkCount() + " chunks");
+        }
+        if (sessionRepository.claimCompletion(sessionId, completionTimeoutMs) == 0) {
+            throw new IllegalArgumentException("Upload session is already being completed: " + sessionId);
+        }
+
+        try {
+            // An earlier attempt may have assembled the object and failed afterwards
+            if (s3Service.headObject(session.getFileKey()).isEmpty()) {
+                SortedMap<Integer, String> eTags = new TreeMap<>();
+                parts.forEach(part -> eTags.put(part.getPartNumber(), part.getEtag()));
+                s3Service.completeMultipartUpload(session.getFileKey(), session.getUploadId(), eTags);
+            }
+            ProductImageRequestDto image = productImageUploadService.verifyUpload(session.getProductId(),
+                    new FinalizeUploadRequestDto(
+                            session.getFileKey(),
+                            request.isPrimary(),
+                            request.displayOrder(),
+                            request.altText(),
+                            request.imageType(),
+                            request.width(),
+                            request.height()));
+            ProductImageResponseDto created = writeTransaction.execute(status -> {
+                ProductImageResponseDto added = productImageService.addImageToProduct(image);
+                if (sessionRepository.markCompleted(sessionId, added.getId()) == 0) {
+                    throw new IllegalArgumentException("Upload session completion was taken over: " + sessionId);
+                }
+                return added;
+            });
+            log.info("Resumable upload {} completed for product: {}", sessionId, session.getProductId());
+            return created;
+        } catch (RuntimeException e) {
+            sessionRepository.reopen(sessionId);
+            throw e;
+        }
+    }
+
+    /**
+     * Aborts the multipart uploads of expired sessions and deletes the sessions. Completed
+     * uploads are aborted too, which is a no-op unless completion failed halfway; sessions
+     * still being completed are left alone until the completion times out. Row locks keep
+     * two nodes from expiring the same session.
+     */
+    @Scheduled(fixedDelayString = "${catalog.resumable-uploads.expiry-interval-ms:300000}")
+    @Transactional
+    public void expireSessions() {
+        List<UploadSession> expired = sessionRepository.lockExpired(LocalDateTime.now(), completionTimeoutMs,
+                EXPIRY_BATCH);
+        for (UploadSession session : expired) {
+            s3Service.abortMultipartUpload(session.getFileKey(), session.getUploadId());
+        }
+        if (!expired.isEmpty()) {
+            sessionRepository.deleteAllInBatch(expired);
+            log.info("Expired {} resumable upload sessions", expired.size());
+        }
+    }
+
+    // -------------------- private helpers --------------------
+
+    private UploadSession openSession(UUID sessionId) {
+        UploadSession session = sessionRepository.findById(sessionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Upload session not found: " + sessionId));
+        if (!session.isOpen()) {
+            throw new IllegalArgumentException("Upload session is no longer open: " + sessionId);
+        }
+        return session;
+    }
+
+    private UploadSessionDto toDto(UploadSession session, List<UploadSessionRepository.PartRow> parts) {
+        long received = 0;
+        long nextOffset = session.getTotalSize();
+        int expectedPart = 1;
+        for (UploadSessionRepository.PartRow part : parts) {
+            received += part.getSize();
+            if (part.getPartNumber() == expectedPart) {
+                expectedPart++;
+            }
+        }
+        if (expectedPart <= session.chunkCount()) {
+            nextOffset = (long) (expectedPart - 1) * session.getChunkSize();
+        }
+        return new UploadSessionDto(session.getId(), session.getFileKey(), session.getStatus(),
+                session.getTotalSize(), session.getChunkSize(), received, nextOffset, session.getExpiresAt());
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.ecommerce.catalog.app;
+
+import com.example.ecommerce.catalog.domain.Brand;
+import com.example.ecommerce.catalog.domain.Category;
+import com.example.ecommerce.catalog.domain.Product;
+import com.example.ecommerce.catalog.domain.SlugRedirect;
+import com.example.ecommerce.catalog.domain.SlugRedirect.TargetType;
+import com.example.ecommerce.catalog.dto.slug.SlugResolutionDto;
+import com.example.ecommerce.catalog.infra.BrandRepository;
+import com.example.ecommerce.catalog.infra.CategoryRepository;
+import com.example.ecommerce.catalog.infra.ProductRepository;
+import com.example.ecommerce.catalog.infra.SlugRedirectRepository;
+import com.example.ecommerce.catalog.infra.SlugRow;
+import com.example.ecommerce.common.util.TransactionCallbacks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory slug -> (type, id) index for categories, brands and products, plus old-slug
+ * redirects. Once loaded, storefront URLs of indexed types resolve without touching the
+ * database, and unknown slugs are rejected without a query; slugs created or renamed
+ * on other nodes become visible with the next reload. Types that are not indexed, and
+ * every type before the first load, resolve from the database.
+ * <p>
+ * Indexing products costs a few hundred bytes of heap per product. Set
+ * {@code catalog.slug-index.include-products=false} for catalogs too large to hold.
+ * <p>
+ * Changes committed while a reload is reading the database are recorded and replayed
+ * onto the new index before it is swapped in, so none of them are lost.
+ */
+@Slf4j
+@Service
+public class SlugRouterService {
+    private static final TargetType[] RESOLUTION_ORDER = { TargetType.CATEGORY, TargetType.BRAND,
+            TargetType.PRODUCT };
+
+    private final CategoryRepository categoryRepository;
+    private final BrandRepository brandRepository;
+    private final ProductRepository productRepository;
+    private final SlugRedirectRepository redirectRepository;
+    private final ExistenceFilterService existenceFilter;
+    private final boolean indexProducts;
+
+    private final Object changeLock = new Object();
+    // One reload at a time: they share changesDuringReload, and a slow one must not swap in
+    // a snapshot older than the last
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile Index index = Index.empty();
+    private volatile boolean loaded = false;
+    // Non-null while a reload is running; guarded by changeLock
+    private List<Consumer<Index>> changesDuringReload;
+
+    public SlugRouterService(CategoryRepository categoryRepository,
+            BrandRepository brandRepository,
+            ProductRepository productRepository,
+            SlugRedirectRepository redirectRepository,
+            ExistenceFilterService existenceFilter,
+            @Value("${catalog.slug-index.include-products:true}") boolean indexProducts) {
+        this.categoryRepository = categoryRepository;
+        this.brandRepository = brandRepository;
+        this.productRepository = productRepository;
+        this.redirectRepository = redirectRepository;
+        this.existenceFilter = existenceFilter;
+        this.indexProducts = indexProducts;
+    }
+
+    private record SlugKey(TargetType type, String slug) {
+    }
+
+    private record Index(Map<SlugKey, UUID> live, Map<SlugKey, UUID> redirects, Map<UUID, String> canonical) {
+        private static Index empty() {
+            return new Index(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Resolves a slug of unknown type, trying categories, then brands, then products.
+     */
+    public Optional<SlugResolutionDto> resolve(String slug) {
+        for (TargetType type : RESOLUTION_ORDER) {
+            Optional<SlugResolutionDto> resolution = resolve(type, slug);
+            if (resolution.isPresent()) {
+                return resolution;
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Optional<SlugResolutionDto> resolve(TargetType type, String slug) {
+        if (slug == null) {
+            return Optional.empty();
+        }
+        if (!isIndexed(type)) {
+            return resolveFromDatabase(type, slug);
+        }
+        Index current = index;
+        SlugKey key = new SlugKey(type, slug);
+        UUID id = current.live().get(key);
+        if (id != null) {
+            return Optional.of(new SlugResolutionDto(type, id, slug, false));
+        }
+        id = current.redirects().get(key);
+        if (id != null) {
+            String canonicalSlug = current.canonical().get(id);
+            if (canonicalSlug != null) {
+                return Optional.of(new SlugResolutionDto(type, id, canonicalSlug, true));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean isIndexed(TargetType type) {
+        return loaded && (type != TargetType.PRODUCT || indexProducts);
+    }
+
+    public void register(TargetType type, UUID id, String slug) {
+        TransactionCallbacks.afterCommit(() -> change(current -> {
+            current.live().put(new SlugKey(type, slug), id);
+            current.redirects().remove(new SlugKey(type, slug));
+            current.canonical().put(id, slug);
+        }));
+    }
+
+    /**
+     * Points the new slug at the entity and keeps the old one as a redirect. Must be
+     * called inside the transaction that persists the rename.
+     */
+    @Transactional
+    public void rename(TargetType type, UUID id, String oldSlug, String newSlug) {
+        if (oldSlug == null || oldSlug.equals(newSlug)) {
+            return;
+        }
+        redirectRepository.upsert(type.name(), oldSlug, id);
+        redirectRepository.deleteByTargetTypeAndOldSlug(type, newSlug);
+        // The old slug is already in the filter as a live slug and now redirects
+        existenceFilter.record(type, id, newSlug);
+        TransactionCallbacks.afterCommit(() -> change(current -> {
+            current.live().remove(new SlugKey(type, oldSlug), id);
+            current.live().put(new SlugKey(type, newSlug), id);
+            current.redirects().remove(new SlugKey(type, newSlug));
+            current.redirects().put(new SlugKey(type, oldSlug), id);
+            current.canonical().put(id, newSlug);
+        }));
+    }
+
+    @Transactional
+    public void unregister(TargetType type, UUID id, String slug) {
+        redirectRepository.deleteByTargetId(id);
+        TransactionCallbacks.afterCommit(() -> change(current -> {
+            current.live().remove(new SlugKey(type, slug), id);
+            current.redirects().values().removeIf(id::equals);
+            current.canonical().remove(id);
+        }));
+    }
+
+    /**
+     * Rebuilds the whole index from the database and swaps it in. Runs right after
+     * startup and then periodically so deletions made on other nodes are dropped.
+     */
+    @Scheduled(fixedDelayString = "${catalog.slug-index.refresh-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void reload() {
+        reloadLock.lock();
+        try {
+            long start = System.currentTimeMillis();
+            synchronized (changeLock) {
+                changesDuringReload = new ArrayList<>();
+            }
+            Index next = Index.empty();
+            try {
+                index(TargetType.CATEGORY, categoryRepository.streamAllSlugs(), next);
+                index(TargetType.BRAND, brandRepository.streamAllSlugs(), next);
+                if (indexProducts) {
+                    index(TargetType.PRODUCT, productRepository.streamAllSlugs(), next);
+                }
+                for (SlugRedirect redirect : redirectRepository.findAll()) {
+                    SlugKey key = new SlugKey(redirect.getTargetType(), redirect.getOldSlug());
+                    if (!next.live().containsKey(key)) {
+                        next.redirects().put(key, redirect.getTargetId());
+                    }
+                }
+            } catch (RuntimeException e) {
+                synchronized (changeLock) {
+                    changesDuringReload = null;
+                }
+                throw e;
+            }
+
+            synchronized (changeLock) {
+                // Committed after (or while) the rows above were read; replaying is idempotent
+                changesDuringReload.forEach(change -> change.accept(next));
+                changesDuringReload = null;
+                this.index = next;
+            }
+            this.loaded = true;
+            log.info("Slug index loaded in {} ms: {} slugs, {} redirects",
+                    System.currentTimeMillis() - start, next.live().size(), next.redirects().size());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    // -------------------- private helpers --------------------
+
+    private void change(Consumer<Index> change) {
+        synchronized (changeLock) {
+            change.accept(index);
+            if (changesDuringReload != null) {
+                changesDuringReload.add(change);
+            }
+        }
+    }
+
+    private void index(TargetType type, Stream<SlugRow> rows, Index next) {
+        try (rows) {
+            rows.filter(row -> row.getSlug() != null).forEach(row -> {
+                next.live().put(new SlugKey(type, row.getSlug()), row.getId());
+                next.canonical().put(row.getId(), row.getSlug());
+            });
+        }
+    }
+
+    /**
+     * Looks the slug up as a live slug and then as an old slug that redirects, unless the
+     * existence filter rules out both.
+     */
+    private Optional<SlugResolutionDto> resolveFromDatabase(TargetType type, String slug) {
+        if (!existenceFilter.mightExist(type, slug)) {
+            return Optional.empty();
+        }
+        return resolveLive(type, slug).or(() -> resolveRedirect(type, slug));
+    }
+
+    private Optional<SlugResolutionDto> resolveLive(TargetType type, String slug) {
+        Optional<UUID> live = switch (type) {
+            case CATEGORY -> categoryRepository.findBySlug(slug).map(Category::getId);
+            case BRAND -> brandRepository.findBySlug(slug).map(Brand::getId);
+            case PRODUCT -> productRepository.findBySlug(slug).map(Product::getId);
+        };
+        return live.map(id -> new SlugResolutionDto(type, id, slug, false));
+    }
+
+    private Optional<SlugResolutionDto> resolveRedirect(TargetType type, String slug) {
+        return redirectRepository.findByTargetTypeAndOldSlug(type, slug)
+                .flatMap(redirect -> currentSlug(type, redirect.getTargetId())
+                        .map(current -> new SlugResolutionDto(type, redirect.getTargetId(), current, true)));
+    }
+
+    private Optional<String> currentSlug(TargetType type, UUID id) {
+        return switch (type) {
+            case CATEGORY -> categoryRepository.findSlugById(id);
+            case BRAND -> brandRepository.findSlugById(id);
+            case PRODUCT -> productRepository.findSlugById(id);
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.ecommerce.catalog.domain;
 
+import com.example.ecommerce.common.util.SlugGenerator;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -91,7 +92,7 @@ public class Brand {
     }
 
     private String generateSlug(String name) {
-        return name.toLowerCase().replaceAll("[^a-z0-9]+", "-");
+        return SlugGenerator.generateSlug(name);
     }
 
     public static class Builder {
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
+import org.hibernate.Hibernate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -72,12 +73,15 @@ public class Category {
         this.description = description;
     }
 
+    // Only parent_id (the owning side) is written. Touching subCategories would load every
+    // sibling, and removing from the old parent's orphanRemoval collection would delete this row.
     public void changeParent(Category newParent) {
-        if (this.parent != null) {
-            this.parent.getSubCategories().remove(this);
+        if (this.parent == newParent) {
+            return;
         }
         this.parent = newParent;
-        if (newParent != null) {
+        if (newParent != null && Hibernate.isInitialized(newParent)
+                && Hibernate.isInitialized(newParent.getSubCategories())) {
             newParent.getSubCategories().add(this);
         }
     }
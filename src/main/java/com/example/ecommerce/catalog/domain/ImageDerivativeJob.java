@@ -0,0 +1,50 @@
+package com.example.ecommerce.catalog.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Queued request to generate resized variants of an original product image. Rows
+ * are inserted and claimed through ImageDerivativeJobRepository.
+ */
+@Getter
+@Entity
+@Table(name = "image_derivative_jobs")
+public class ImageDerivativeJob {
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID sourceImageId;
+
+    @Column(length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime availableAt;
+
+    private LocalDateTime lockedAt;
+
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    protected ImageDerivativeJob() {
+    }
+
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.ecommerce.catalog.domain;
 
+import com.example.ecommerce.common.util.SlugGenerator;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
@@ -8,6 +9,8 @@ import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -63,11 +66,16 @@ public class Product {
     @Column(length = 50)
     private String sku;
 
+    @Column(nullable = false, unique = true)
+    private String slug;
+
     @Column(name = "status", length = 25, nullable = false)
     @Enumerated(EnumType.STRING)
     private Status status = Status.OUT_OF_STOCK;
 
+    // Listing pages touch the images of every product; batch the lazy loads into one query per page
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @JsonManagedReference
     private List<ProductImage> productImages = new ArrayList<>();
 
@@ -98,6 +106,7 @@ public class Product {
         this.color = builder.color;
         this.sku = builder.sku;
         this.size = builder.size;
+        this.slug = builder.slug;
     }
 
     public void updateProductName(String name) {
@@ -166,21 +175,31 @@ public class Product {
         }
     }
 
+    // Only category_id (the owning side) is written. Category.products is kept in sync
+    // only when it is already loaded, so a reassignment never initializes every sibling.
     public void assignToCategory(Category category) {
-        if (this.category != null) {
+        if (isProductsLoaded(this.category)) {
             this.category.getProducts().remove(this);
         }
         this.category = category;
-        if (category != null) {
+        if (isProductsLoaded(category)) {
             category.getProducts().add(this);
         }
     }
 
+    private static boolean isProductsLoaded(Category category) {
+        return category != null && Hibernate.isInitialized(category)
+                && Hibernate.isInitialized(category.getProducts());
+    }
+
     // --- JPA Lifecycle Hooks ---
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        if (this.slug == null || this.slug.isBlank()) {
+            this.slug = generateSlug(this.productName);
+        }
     }
 
     @PreUpdate
@@ -188,6 +207,11 @@ public class Product {
         updatedAt = LocalDateTime.now();
     }
 
+    // Product names are not unique, so a short random suffix keeps the slug unique and stable
+    private String generateSlug(String name) {
+        return SlugGenerator.generateSlug(name) + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
     public enum Status {
         ACTIVE, IN_ACTIVE, OUT_OF_STOCK
     }
@@ -206,6 +230,7 @@ public class Product {
         private String size;
         private String color;
         private String sku;
+        private String slug;
 
         public Builder setProductName(String productName) {
             this.productName = productName;
@@ -267,6 +292,11 @@ public class Product {
             return this;
         }
 
+        public Builder setSlug(String slug) {
+            this.slug = slug;
+            return this;
+        }
+
         @SuppressWarnings("unused")
         private void validate() {
             if (productName == null || productName.trim().isEmpty()) {
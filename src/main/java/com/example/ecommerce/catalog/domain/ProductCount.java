@@ -0,0 +1,45 @@
+package com.example.ecommerce.catalog.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only view of the product_counts side table. Rows are written through the
+ * native upserts in ProductCountRepository so concurrent increments never race.
+ */
+@Getter
+@Entity
+@Table(name = "product_counts")
+public class ProductCount {
+    @Id
+    private UUID ownerId;
+
+    @Column(length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OwnerType ownerType;
+
+    @Column(nullable = false)
+    private long productCount;
+
+    @Column(nullable = false)
+    private long activeProductCount;
+
+    @Column(nullable = false)
+    private long subtreeProductCount;
+
+    @Column(nullable = false)
+    private long subtreeActiveProductCount;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    protected ProductCount() {
+    }
+
+    public enum OwnerType {
+        CATEGORY, BRAND
+    }
+}
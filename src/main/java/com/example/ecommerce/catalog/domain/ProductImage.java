@@ -7,6 +7,7 @@ import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.Hibernate;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -58,6 +59,9 @@ public class ProductImage {
     @Column(nullable = false)
     private Integer height; // image height in pixels
 
+    // Set on resized variants; points at the original they were generated from
+    private UUID sourceImageId;
+
     @Column(updatable = false, nullable = false)
     private LocalDateTime createdAt;
 
@@ -93,8 +97,10 @@ public class ProductImage {
     // Business Methods
     public void markAsPrimary() {
         this.isPrimary = true;
-        // If this image is marked as primary, ensure no other images are primary
-        if (this.product != null) {
+        // Unset sibling primaries only when they are already loaded; ProductImageService
+        // swaps primaries with a single UPDATE instead of loading the whole collection.
+        if (this.product != null && Hibernate.isInitialized(this.product)
+                && Hibernate.isInitialized(this.product.getProductImages())) {
             this.product.getProductImages().stream()
                     .filter(image -> image.isPrimary() && !image.getId().equals(this.id))
                     .forEach(image -> image.setPrimary(false));
@@ -127,6 +133,10 @@ public class ProductImage {
         validateImageUrl();
     }
 
+    public boolean isVariant() {
+        return this.sourceImageId != null;
+    }
+
     public boolean isThumbnail() {
         return "THUMBNAIL".equals(this.imageType);
     }
@@ -182,6 +192,7 @@ public class ProductImage {
         private String mimeType;
         private Integer width;
         private Integer height;
+        private UUID sourceImageId;
 
         public Builder imageUrl(String imageUrl) {
             this.imageUrl = imageUrl;
@@ -229,9 +240,16 @@ public class ProductImage {
             return this;
         }
 
+        public Builder sourceImageId(UUID sourceImageId) {
+            this.sourceImageId = sourceImageId;
+            return this;
+        }
+
         public ProductImage build() {
-            return new ProductImage(imageUrl, isPrimary, product, displayOrder,
+            ProductImage image = new ProductImage(imageUrl, isPrimary, product, displayOrder,
                     altText, imageType, fileSize, mimeType, width, height);
+            image.sourceImageId = sourceImageId;
+            return image;
         }
     }
 }
@@ -0,0 +1,39 @@
+package com.example.ecommerce.catalog.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Remembers a slug that used to point at a category, brand or product so that old
+ * SEO URLs keep resolving after a rename. Written through SlugRedirectRepository.
+ */
+@Getter
+@Entity
+@Table(name = "slug_redirects")
+public class SlugRedirect {
+    @Id
+    private UUID id;
+
+    @Column(length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private TargetType targetType;
+
+    @Column(nullable = false)
+    private String oldSlug;
+
+    @Column(nullable = false)
+    private UUID targetId;
+
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime createdAt;
+
+    protected SlugRedirect() {
+    }
+
+    public enum TargetType {
+        CATEGORY, BRAND, PRODUCT
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.ecommerce.catalog.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A content-addressed object in storage and the number of image rows referencing it.
+ * Written through StoredObjectRepository; objects are removed only after their
+ * reference count has stayed at zero for a grace period.
+ */
+@Getter
+@Entity
+@Table(name = "stored_objects")
+public class StoredObject {
+    @Id
+    @Column(length = 64)
+    private String contentHash;
+
+    @Column(nullable = false, length = 500)
+    private String fileKey;
+
+    @Column(length = 100)
+    private String contentType;
+
+    @Column(nullable = false)
+    private long fileSize;
+
+    @Column(nullable = false)
+    private int refCount;
+
+    // False until an upload of the bytes has completed
+    @Column(nullable = false)
+    private boolean stored;
+
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    protected StoredObject() {
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.ecommerce.catalog.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A resumable image upload. The bytes go to an S3 multipart upload in fixed-size
+ * chunks; this row and its upload_session_parts let any node continue the upload.
+ */
+@Entity
+@Getter
+@NoArgsConstructor
+@Table(name = "upload_sessions")
+public class UploadSession {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID productId;
+
+    @Column(nullable = false, length = 500)
+    private String fileKey;
+
+    @Column(nullable = false, length = 1024)
+    private String uploadId;
+
+    @Column(nullable = false, length = 100)
+    private String contentType;
+
+    @Column(nullable = false)
+    private long totalSize;
+
+    @Column(nullable = false)
+    private int chunkSize;
+
+    @Column(length = 20, nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.OPEN;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Set together with COMPLETED
+    private UUID imageId;
+
+    @Column(updatable = false, nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public UploadSession(UUID productId, String fileKey, String uploadId, String contentType, long totalSize,
+            int chunkSize, LocalDateTime expiresAt) {
+        this.productId = productId;
+        this.fileKey = fileKey;
+        this.uploadId = uploadId;
+        this.contentType = contentType;
+        this.totalSize = totalSize;
+        this.chunkSize = chunkSize;
+        this.expiresAt = expiresAt;
+    }
+
+    public enum Status {
+        OPEN, COMPLETING, COMPLETED
+    }
+
+    public int chunkCount() {
+        return (int) ((totalSize + chunkSize - 1) / chunkSize);
+    }
+
+    public boolean isOpen() {
+        return status == Status.OPEN && expiresAt.isAfter(LocalDateTime.now());
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.ecommerce.catalog.dto.brand;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last row of a page: the sort key value and id of that row. Sent
+ * to clients as an opaque URL-safe string that also pins the sort order.
+ */
+public record BrandProductCursor(BrandProductSort sort, LocalDateTime createdAt, BigDecimal price, UUID id) {
+
+    public static BrandProductCursor after(BrandProductSort sort, BrandProductDto last) {
+        return new BrandProductCursor(sort, last.createdAt(), last.price(), last.id());
+    }
+
+    public String encode() {
+        String value = sort.byPrice() ? price.toPlainString() : createdAt.toString();
+        String raw = sort.name() + "|" + value + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BrandProductCursor decode(String cursor, BrandProductSort expectedSort) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            BrandProductSort sort = BrandProductSort.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new IllegalArgumentException("Cursor was issued for sort " + sort);
+            }
+            UUID id = UUID.fromString(parts[2]);
+            return sort.byPrice()
+                    ? new BrandProductCursor(sort, null, new BigDecimal(parts[1]), id)
+                    : new BrandProductCursor(sort, LocalDateTime.parse(parts[1]), null, id);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.ecommerce.catalog.dto.brand;
+
+import com.example.ecommerce.catalog.domain.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record BrandProductDto(
+        UUID id,
+        String productName,
+        String slug,
+        BigDecimal price,
+        Long stockQuantity,
+        Product.Status status,
+        BigDecimal rating,
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,8 @@
+package com.example.ecommerce.catalog.dto.brand;
+
+import com.example.ecommerce.catalog.domain.Product;
+
+import java.math.BigDecimal;
+
+public record BrandProductFilter(Product.Status status, BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
+}
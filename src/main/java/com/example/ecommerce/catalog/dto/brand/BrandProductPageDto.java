@@ -0,0 +1,13 @@
+package com.example.ecommerce.catalog.dto.brand;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Keyset-paginated page of a brand's products")
+public record BrandProductPageDto(
+        List<BrandProductDto> content,
+        int size,
+        @Schema(description = "Opaque cursor for the next page; null on the last page") String nextCursor,
+        boolean last) {
+}
@@ -0,0 +1,13 @@
+package com.example.ecommerce.catalog.dto.brand;
+
+public enum BrandProductSort {
+    NEWEST, OLDEST, PRICE_ASC, PRICE_DESC;
+
+    public boolean byPrice() {
+        return this == PRICE_ASC || this == PRICE_DESC;
+    }
+
+    public boolean descending() {
+        return this == NEWEST || this == PRICE_DESC;
+    }
+}
@@ -10,6 +10,8 @@ public record BrandResponseDto(
         String logoUrl,
         String slug,
         boolean active,
+        long productCount,
+        long activeProductCount,
         LocalDateTime createdAt,
         LocalDateTime updatedAt) {
 }
@@ -4,5 +4,5 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 public record PaginatedBrandsResponseDto(UUID id, String name, String description, String logoUrl,
-        LocalDateTime createdAt, LocalDateTime updatedAt) {
+        long productCount, long activeProductCount, LocalDateTime createdAt, LocalDateTime updatedAt) {
 }
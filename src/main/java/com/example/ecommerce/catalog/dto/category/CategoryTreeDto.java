@@ -35,6 +35,12 @@ public class CategoryTreeDto {
     @Schema(description = "True if this is a root category (no parent)")
     private boolean rootCategory;
 
+    @Schema(description = "Number of products in this category and its subcategories")
+    private long productCount;
+
+    @Schema(description = "Number of ACTIVE products in this category and its subcategories")
+    private long activeProductCount;
+
     @Schema(description = "List of subcategories")
     private List<CategoryTreeDto> subCategories = new ArrayList<>();
 }
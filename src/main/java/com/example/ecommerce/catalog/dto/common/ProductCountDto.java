@@ -0,0 +1,26 @@
+package com.example.ecommerce.catalog.dto.common;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Product counters for a category or brand")
+public record ProductCountDto(
+        @Schema(description = "Products assigned directly") long productCount,
+        @Schema(description = "ACTIVE products assigned directly") long activeProductCount,
+        @Schema(description = "Products in this category and all of its descendants") long subtreeProductCount,
+        @Schema(description = "ACTIVE products in this category and all of its descendants") long subtreeActiveProductCount) {
+
+    public static final ProductCountDto EMPTY = new ProductCountDto(0, 0, 0, 0);
+
+    public ProductCountDto plus(ProductCountDto other) {
+        return new ProductCountDto(
+                productCount + other.productCount,
+                activeProductCount + other.activeProductCount,
+                subtreeProductCount + other.subtreeProductCount,
+                subtreeActiveProductCount + other.subtreeActiveProductCount);
+    }
+
+    public boolean isZero() {
+        return productCount == 0 && activeProductCount == 0
+                && subtreeProductCount == 0 && subtreeActiveProductCount == 0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.ecommerce.catalog.dto.image;
+
+import jakarta.validation.constraints.Size;
+
+public record CompleteUploadRequestDto(
+
+        Boolean isPrimary,
+
+        Integer displayOrder,
+
+        @Size(max = 255, message = "Alt text must not exceed 255 characters")
+        String altText,
+
+        @Size(max = 50, message = "Image type must not exceed 50 characters")
+        String imageType,
+
+        // Only used when the dimensions cannot be read from the image header
+        Integer width,
+
+        Integer height
+) {
+}
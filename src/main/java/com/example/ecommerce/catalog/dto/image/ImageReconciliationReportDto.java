@@ -0,0 +1,19 @@
+package com.example.ecommerce.catalog.dto.image;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Outcome of comparing stored product image objects with image rows")
+public record ImageReconciliationReportDto(
+        @Schema(description = "Whether orphans were only reported, not deleted") boolean dryRun,
+        long objectsScanned,
+        long rowsScanned,
+        @Schema(description = "Stored objects no image row points at") long orphanObjects,
+        @Schema(description = "Image rows whose stored object is missing") long danglingRows,
+        long objectsDeleted,
+        long rowsDeleted,
+        @Schema(description = "Up to the first 100 orphaned object keys") List<String> sampleOrphanKeys,
+        @Schema(description = "Up to the first 100 dangling image URLs") List<String> sampleDanglingUrls,
+        long durationMs) {
+}
@@ -23,16 +23,15 @@ public record ProductImageRequestDto(
         @Size(max = 50, message = "Image type must not exceed 50 characters")
         String imageType,
 
-        @NotNull(message = "File size is required")
+        // File size, MIME type and dimensions are read from storage for images in our
+        // bucket and are only required for external URLs
         Long fileSize,
 
         @Size(max = 100, message = "MIME type must not exceed 100 characters")
         String mimeType,
 
-        @NotNull(message = "Width is required")
         Integer width,
 
-        @NotNull(message = "Height is required")
         Integer height
 ) {
 }
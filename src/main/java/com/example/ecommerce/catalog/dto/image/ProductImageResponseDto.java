@@ -25,6 +25,7 @@ public class ProductImageResponseDto {
     private Integer width;
     private Integer height;
     private Double aspectRatio;
+    private UUID sourceImageId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
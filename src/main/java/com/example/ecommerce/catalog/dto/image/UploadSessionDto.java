@@ -0,0 +1,19 @@
+package com.example.ecommerce.catalog.dto.image;
+
+import com.example.ecommerce.catalog.domain.UploadSession;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Schema(description = "State of a resumable upload")
+public record UploadSessionDto(
+        UUID id,
+        String fileKey,
+        UploadSession.Status status,
+        long totalSize,
+        @Schema(description = "Every chunk but the last must be exactly this long") int chunkSize,
+        long receivedBytes,
+        @Schema(description = "Offset of the first chunk not received yet, or totalSize when complete") long nextOffset,
+        LocalDateTime expiresAt) {
+}
@@ -0,0 +1,22 @@
+package com.example.ecommerce.catalog.dto.image;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+public record UploadSlotRequestDto(
+
+        @NotBlank(message = "File name is required")
+        @Size(max = 255, message = "File name must not exceed 255 characters")
+        String fileName,
+
+        @NotBlank(message = "Content type is required")
+        @Size(max = 100, message = "Content type must not exceed 100 characters")
+        String contentType,
+
+        @NotNull(message = "Content length is required")
+        @Positive(message = "Content length must be positive")
+        Long contentLength
+) {
+}
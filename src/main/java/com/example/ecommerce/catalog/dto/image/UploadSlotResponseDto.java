@@ -0,0 +1,15 @@
+package com.example.ecommerce.catalog.dto.image;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Schema(description = "Presigned slot for uploading one image directly to storage")
+public record UploadSlotResponseDto(
+        @Schema(description = "Storage key to pass to the finalize endpoint") String fileKey,
+        @Schema(description = "Presigned URL to PUT the image bytes to") String uploadUrl,
+        @Schema(description = "Headers the PUT must carry exactly, or storage rejects the signature") Map<String, String> requiredHeaders,
+        @Schema(description = "Largest accepted image size in bytes") long maxFileSize,
+        @Schema(description = "When the presigned URL stops working") Instant expiresAt) {
+}
@@ -14,5 +14,6 @@ public record PaginatedProductListResponseDto(
         String size,
         String sku,
         String brandname,
+        String listingImageUrl,
         LocalDateTime createdAt,
         LocalDateTime updatedAt) {}
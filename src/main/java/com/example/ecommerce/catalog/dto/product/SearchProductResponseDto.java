@@ -7,5 +7,6 @@ import com.example.ecommerce.catalog.domain.Product.Status;
 import com.example.ecommerce.catalog.domain.ProductImage;
 
 public record SearchProductResponseDto(UUID id, String productName, String description, BigDecimal price,
-                                       long stockQuantity, Status status, Optional<ProductImage> primaryImage) {
+                                       long stockQuantity, Status status, Optional<ProductImage> primaryImage,
+                                       String listingImageUrl) {
 }
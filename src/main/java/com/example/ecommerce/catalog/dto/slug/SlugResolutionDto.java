@@ -0,0 +1,14 @@
+package com.example.ecommerce.catalog.dto.slug;
+
+import com.example.ecommerce.catalog.domain.SlugRedirect;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Result of resolving a storefront slug")
+public record SlugResolutionDto(
+        @Schema(description = "Kind of entity the slug points at") SlugRedirect.TargetType type,
+        @Schema(description = "Identifier of the entity") UUID id,
+        @Schema(description = "Current canonical slug", example = "smartphones") String slug,
+        @Schema(description = "True if the slug is an old one and clients should redirect") boolean redirect) {
+}
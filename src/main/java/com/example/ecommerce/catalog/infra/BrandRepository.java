@@ -1,15 +1,28 @@
 package com.example.ecommerce.catalog.infra;
 
 import com.example.ecommerce.catalog.domain.Brand;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface BrandRepository extends JpaRepository<Brand, UUID> {
 
-    @Query("SELECT b FROM Brand b LEFT JOIN FETCH b.products WHERE b.id = :id")
-    Optional<Brand> findByIdWithProducts(@Param("id") UUID id);
+    Optional<Brand> findBySlug(String slug);
+
+    /**
+     * Streams every id and slug. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.id AS id, b.slug AS slug FROM Brand b")
+    Stream<SlugRow> streamAllSlugs();
+
+    @Query("SELECT b.slug FROM Brand b WHERE b.id = :id")
+    Optional<String> findSlugById(@Param("id") UUID id);
 }
@@ -3,12 +3,17 @@ package com.example.ecommerce.catalog.infra;
 import com.example.ecommerce.catalog.domain.Category;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
     Optional<Category> findBySlug(String slug);
@@ -23,4 +28,14 @@ public interface CategoryRepository extends JpaRepository<Category, UUID> {
     Page<Category> findCategoriesWithChildren(Pageable pageable);
 
     List<Category> findByParent(Category parent);
+
+    /**
+     * Streams every id and slug. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id AS id, c.slug AS slug FROM Category c")
+    Stream<SlugRow> streamAllSlugs();
+
+    @Query("SELECT c.slug FROM Category c WHERE c.id = :id")
+    Optional<String> findSlugById(@Param("id") UUID id);
 }
@@ -1,9 +1,14 @@
 package com.example.ecommerce.catalog.infra;
 
+import com.example.ecommerce.catalog.app.ExistenceFilterService;
+import com.example.ecommerce.catalog.app.ProductCountService;
+import com.example.ecommerce.catalog.app.SlugRouterService;
 import com.example.ecommerce.catalog.domain.Brand;
 import com.example.ecommerce.catalog.domain.Category;
 import com.example.ecommerce.catalog.domain.Product;
-import com.example.ecommerce.catalog.domain.ProductImage;
+import com.example.ecommerce.common.util.SlugGenerator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,16 +16,30 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * DataSeeder with UNIQUE products + product images.
- * Set TOTAL_PRODUCTS_TO_GENERATE between 500 and 1000.
- * 
- * This component no longer runs automatically on startup.
+ * Generates a synthetic catalog of configurable size: brands, categories, products and
+ * product images. Sized through {@code seed.*} properties, e.g. {@code seed.products=10000000}.
+ * <p>
+ * Products are generated in fixed-size chunks on a worker pool and written with
+ * PostgreSQL COPY, one connection per worker. Every chunk draws from its own random
+ * stream derived from {@code seed.random-seed} and the chunk index, so the same seed
+ * against the same starting database yields the same rows whatever the thread count.
+ * Brand and category popularity follow a Zipf distribution ({@code seed.skew}, 0 for
+ * uniform), as do the number of images per product.
+ * <p>
+ * This component does not run automatically on startup.
  * Use SeedDataScript to run seeding manually.
  */
 @Component
@@ -28,25 +47,79 @@ import java.util.stream.Collectors;
 public class DataSeeder {
     private static final Logger logger = LoggerFactory.getLogger(DataSeeder.class);
 
-    private static final int TOTAL_PRODUCTS_TO_GENERATE = 800;
-    private static final int BATCH_SIZE = 100;
+    // Products are spaced one second apart from here, so ids and created_at follow insert order
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final long BASE_MILLIS = 1_704_067_200_000L;
+
+    private static final String COPY_PRODUCTS = "COPY products (id, product_name, description, rating, "
+            + "stock_quantity, weight, price, color, size, sku, status, category_id, brand_id, created_at, "
+            + "updated_at, slug) FROM STDIN (FORMAT csv)";
+    private static final String COPY_IMAGES = "COPY product_images (id, product_id, image_url, is_primary, "
+            + "display_order, alt_text, file_size, image_type, mime_type, width, height, created_at, updated_at) "
+            + "FROM STDIN (FORMAT csv)";
+
+    private static final Map<String, String> CURATED_BRANDS = new LinkedHashMap<>();
+    private static final Map<String, String[]> BRAND_MODELS = new HashMap<>();
+    private static final List<String> CURATED_CATEGORIES = List.of(
+            "Smartphones", "Laptops", "Headphones", "Televisions",
+            "Watches", "Shoes", "Clothing", "Furniture", "Gaming", "Accessories");
+    private static final String[] GENERIC_MODELS = { "Classic", "Essential", "Signature", "Studio", "Urban" };
+    private static final String[] MODIFIERS = { "Pro", "Max", "Plus", "Lite", "2025", "Edition", "SE", "Ultra" };
+    private static final String[] COLORS = { "Black", "White", "Blue", "Gray", "Red", "Green", "Silver", "Gold",
+            "Brown", "Navy" };
+    private static final String[] SIZES = { "S", "M", "L", "XL", "Standard", "OneSize", "Compact", "Large" };
+
+    static {
+        CURATED_BRANDS.put("Apple", "Consumer electronics");
+        CURATED_BRANDS.put("Samsung", "Electronics & appliances");
+        CURATED_BRANDS.put("Sony", "Audio & visual products");
+        CURATED_BRANDS.put("Nike", "Sportswear & footwear");
+        CURATED_BRANDS.put("Adidas", "Sporting goods");
+        CURATED_BRANDS.put("IKEA", "Home furniture");
+        CURATED_BRANDS.put("Dell", "Computers & laptops");
+        CURATED_BRANDS.put("HP", "Computers & printers");
+        CURATED_BRANDS.put("Levi's", "Denim & apparel");
+        CURATED_BRANDS.put("Gucci", "Luxury fashion");
+
+        BRAND_MODELS.put("Apple", new String[] { "iPhone", "MacBook", "iPad", "AirPods", "Watch" });
+        BRAND_MODELS.put("Samsung", new String[] { "Galaxy S", "Galaxy Note", "Galaxy Tab", "QLED TV", "Galaxy Watch" });
+        BRAND_MODELS.put("Sony", new String[] { "WH-Headphones", "Bravia", "Alpha Camera", "PlayStation", "Soundbar" });
+        BRAND_MODELS.put("Nike", new String[] { "Air Max", "Court Vision", "Running Shoe", "Training Shirt" });
+        BRAND_MODELS.put("Adidas", new String[] { "Ultraboost", "Superstar", "Running Tee", "Track Jacket" });
+        BRAND_MODELS.put("IKEA", new String[] { "MALM Bed", "POÄNG Chair", "BILLY Shelf", "LACK Table" });
+        BRAND_MODELS.put("Dell", new String[] { "XPS", "Inspiron", "Latitude", "Alienware" });
+        BRAND_MODELS.put("HP", new String[] { "Envy", "Pavilion", "Omen", "Spectre" });
+        BRAND_MODELS.put("Levi's", new String[] { "501 Jeans", "Trucker Jacket", "T-Shirt", "Slim Jeans" });
+        BRAND_MODELS.put("Gucci", new String[] { "Leather Belt", "Sneakers", "Handbag", "Sunglasses" });
+    }
 
     private final BrandRepository brandRepository;
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final ProductCountService productCountService;
+    private final ExistenceFilterService existenceFilter;
+    private final SlugRouterService slugRouter;
+    private final DataSource dataSource;
     private final Environment environment;
 
     private int brandsCreated = 0;
     private int categoriesCreated = 0;
-    private int productsCreated = 0;
 
     public DataSeeder(BrandRepository brandRepository,
             CategoryRepository categoryRepository,
             ProductRepository productRepository,
+            ProductCountService productCountService,
+            ExistenceFilterService existenceFilter,
+            SlugRouterService slugRouter,
+            DataSource dataSource,
             Environment environment) {
         this.brandRepository = brandRepository;
         this.categoryRepository = categoryRepository;
         this.productRepository = productRepository;
+        this.productCountService = productCountService;
+        this.existenceFilter = existenceFilter;
+        this.slugRouter = slugRouter;
+        this.dataSource = dataSource;
         this.environment = environment;
     }
 
@@ -56,47 +129,70 @@ public class DataSeeder {
             return;
         }
 
-        logger.info("Starting realistic UNIQUE data seeding with images. Target products: {}",
-                TOTAL_PRODUCTS_TO_GENERATE);
+        SeedConfig config = SeedConfig.from(environment);
+        logger.info("Starting data seeding: {}", config);
         long start = System.currentTimeMillis();
 
-        List<Brand> brands = ensureBrands();
-        List<Category> categories = ensureCategories();
+        List<Brand> brands = ensureBrands(config.brands());
+        List<Category> categories = ensureCategories(config.categories());
 
-        generateUniqueProductsWithImages(brands, categories, TOTAL_PRODUCTS_TO_GENERATE);
+        long[] created = generateProducts(config, brands, categories);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE products");
+            statement.execute("ANALYZE product_images");
+        } catch (Exception e) {
+            logger.warn("Failed to analyze seeded tables: {}", e.getMessage());
+        }
+        productCountService.reconcile();
+        // COPY bypasses the services, so the in-memory lookups are rebuilt from the committed
+        // rows; other nodes pick them up on their next scheduled rebuild
+        existenceFilter.rebuild();
+        slugRouter.reload();
 
         long elapsed = System.currentTimeMillis() - start;
-        logger.info("Seeding finished in {} ms — Brands created: {}, Categories created: {}, Products created: {}",
-                elapsed, brandsCreated, categoriesCreated, productsCreated);
+        logger.info("Seeding finished in {} ms — Brands created: {}, Categories created: {}, Products created: {}, "
+                + "Images created: {}", elapsed, brandsCreated, categoriesCreated, created[0], created[1]);
     }
 
     private boolean isLocalProfile() {
         return Arrays.asList(environment.getActiveProfiles()).contains("local");
     }
 
-    private List<Brand> ensureBrands() {
-        List<String[]> brandData = Arrays.asList(
-                new String[] { "Apple", "Consumer electronics" },
-                new String[] { "Samsung", "Electronics & appliances" },
-                new String[] { "Sony", "Audio & visual products" },
-                new String[] { "Nike", "Sportswear & footwear" },
-                new String[] { "Adidas", "Sporting goods" },
-                new String[] { "IKEA", "Home furniture" },
-                new String[] { "Dell", "Computers & laptops" },
-                new String[] { "HP", "Computers & printers" },
-                new String[] { "Levi's", "Denim & apparel" },
-                new String[] { "Gucci", "Luxury fashion" });
+    /**
+     * Seeding parameters, read from {@code seed.*} properties.
+     */
+    private record SeedConfig(long products, int brands, int categories, int maxImagesPerProduct, double skew,
+            long randomSeed, int threads, int chunkSize) {
+
+        static SeedConfig from(Environment env) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            return new SeedConfig(
+                    env.getProperty("seed.products", Long.class, 800L),
+                    env.getProperty("seed.brands", Integer.class, CURATED_BRANDS.size()),
+                    env.getProperty("seed.categories", Integer.class, CURATED_CATEGORIES.size()),
+                    Math.max(1, env.getProperty("seed.max-images-per-product", Integer.class, 4)),
+                    Math.max(0, env.getProperty("seed.skew", Double.class, 1.0)),
+                    env.getProperty("seed.random-seed", Long.class, 42L),
+                    Math.max(1, env.getProperty("seed.threads", Integer.class, Math.min(cores, 8))),
+                    Math.max(1, env.getProperty("seed.chunk-size", Integer.class, 10_000)));
+        }
+    }
+
+    // --- ensure curated (and, beyond those, numbered) brands ---
+    private List<Brand> ensureBrands(int count) {
+        Set<String> existing = new HashSet<>();
+        brandRepository.findAll().forEach(brand -> existing.add(brand.getName().toLowerCase(Locale.ROOT)));
 
         List<Brand> toSave = new ArrayList<>();
-        List<Brand> existing = brandRepository.findAll();
-
-        for (String[] b : brandData) {
-            String name = b[0];
-            boolean exists = existing.stream().anyMatch(br -> br.getName().equalsIgnoreCase(name));
-            if (!exists) {
+        Iterator<Map.Entry<String, String>> curated = CURATED_BRANDS.entrySet().iterator();
+        for (int i = 1; i <= count; i++) {
+            Map.Entry<String, String> entry = curated.hasNext() ? curated.next() : null;
+            String name = entry != null ? entry.getKey() : String.format("Brand %05d", i);
+            if (!existing.contains(name.toLowerCase(Locale.ROOT))) {
                 Brand brand = new Brand.Builder()
                         .setName(name)
-                        .setDescription(b[1])
+                        .setDescription(entry != null ? entry.getValue() : "Generated brand " + i)
                         .setSlug(name.toLowerCase().replaceAll("[^a-z0-9]+", "-"))
                         .setActive(true)
                         .build();
@@ -111,17 +207,19 @@ public class DataSeeder {
         } else {
             logger.info("Brands already present, nothing to add");
         }
-        return brandRepository.findAll();
+        // Sorted so that a given seed maps popularity ranks to the same brands every run
+        List<Brand> brands = new ArrayList<>(brandRepository.findAll());
+        brands.sort(Comparator.comparing(Brand::getName));
+        return brands;
     }
 
-    // --- ensure curated categories ---
-    private List<Category> ensureCategories() {
-        List<String> catNames = Arrays.asList(
-                "Smartphones", "Laptops", "Headphones", "Televisions",
-                "Watches", "Shoes", "Clothing", "Furniture", "Gaming", "Accessories");
-
+    // --- ensure curated (and, beyond those, numbered) categories ---
+    private List<Category> ensureCategories(int count) {
         List<Category> toSave = new ArrayList<>();
-        for (String name : catNames) {
+        for (int i = 1; i <= count; i++) {
+            String name = i <= CURATED_CATEGORIES.size()
+                    ? CURATED_CATEGORIES.get(i - 1)
+                    : String.format("Category %05d", i);
             if (!categoryRepository.existsByName(name)) {
                 Category c = new Category.Builder()
                         .setName(name)
@@ -138,153 +236,195 @@ public class DataSeeder {
         } else {
             logger.info("Categories already present, nothing to add");
         }
-        return categoryRepository.findAll();
+        List<Category> categories = new ArrayList<>(categoryRepository.findAll());
+        categories.sort(Comparator.comparing(Category::getName));
+        return categories;
     }
 
-    // --- unique product generation with images ---
-    private void generateUniqueProductsWithImages(List<Brand> brands, List<Category> categories, int total) {
+    // --- parallel product generation, one COPY per chunk and table ---
+    private long[] generateProducts(SeedConfig config, List<Brand> brands, List<Category> categories) {
         if (brands.isEmpty() || categories.isEmpty()) {
             logger.warn("Brands or categories missing — aborting product generation");
-            return;
+            return new long[] { 0, 0 };
         }
 
-        Map<String, String[]> brandModels = new HashMap<>();
-        brandModels.put("Apple", new String[] { "iPhone", "MacBook", "iPad", "AirPods", "Watch" });
-        brandModels.put("Samsung", new String[] { "Galaxy S", "Galaxy Note", "Galaxy Tab", "QLED TV", "Galaxy Watch" });
-        brandModels.put("Sony", new String[] { "WH-Headphones", "Bravia", "Alpha Camera", "PlayStation", "Soundbar" });
-        brandModels.put("Nike", new String[] { "Air Max", "Court Vision", "Running Shoe", "Training Shirt" });
-        brandModels.put("Adidas", new String[] { "Ultraboost", "Superstar", "Running Tee", "Track Jacket" });
-        brandModels.put("IKEA", new String[] { "MALM Bed", "POÄNG Chair", "BILLY Shelf", "LACK Table" });
-        brandModels.put("Dell", new String[] { "XPS", "Inspiron", "Latitude", "Alienware" });
-        brandModels.put("HP", new String[] { "Envy", "Pavilion", "Omen", "Spectre" });
-        brandModels.put("Levi's", new String[] { "501 Jeans", "Trucker Jacket", "T-Shirt", "Slim Jeans" });
-        brandModels.put("Gucci", new String[] { "Leather Belt", "Sneakers", "Handbag", "Sunglasses" });
-
-        String[] modifiers = { "Pro", "Max", "Plus", "Lite", "2025", "Edition", "SE", "Ultra" };
-        String[] colors = { "Black", "White", "Blue", "Gray", "Red", "Green", "Silver", "Gold", "Brown", "Navy" };
-        String[] sizes = { "S", "M", "L", "XL", "Standard", "OneSize", "Compact", "Large" };
-
-        // existing SKUs to avoid collision
-        Set<String> existingSkus = productRepository.findAll().stream()
-                .map(Product::getSku)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        List<Product> batch = new ArrayList<>(BATCH_SIZE);
-        for (int i = 1; i <= total; i++) {
-            Brand brand = brands.get((i - 1) % brands.size());
-            Category category = categories.get(ThreadLocalRandom.current().nextInt(categories.size()));
+        // Appending after the existing rows keeps names, SKUs and slugs unique across runs
+        long firstIndex = productRepository.count() + 1;
+        long chunks = (config.products() + config.chunkSize() - 1) / config.chunkSize();
+        Zipf brandRanks = new Zipf(brands.size(), config.skew());
+        Zipf categoryRanks = new Zipf(categories.size(), config.skew());
+        Zipf imageCounts = new Zipf(config.maxImagesPerProduct(), config.skew());
+
+        AtomicLong productsCreated = new AtomicLong();
+        AtomicLong imagesCreated = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(config.threads());
+        try {
+            List<Future<?>> pending = new ArrayList<>();
+            for (long chunk = 0; chunk < chunks; chunk++) {
+                long from = firstIndex + chunk * config.chunkSize();
+                long to = Math.min(firstIndex + config.products(), from + config.chunkSize());
+                SplittableRandom random = new SplittableRandom(config.randomSeed() * 0x9E3779B97F4A7C15L + chunk);
+                pending.add(executor.submit(() -> {
+                    ChunkRows rows = generateChunk(from, to, random, brands, categories, brandRanks,
+                            categoryRanks, imageCounts);
+                    writeChunk(rows);
+                    long total = productsCreated.addAndGet(rows.productCount);
+                    imagesCreated.addAndGet(rows.imageCount);
+                    logger.info("Saved chunk: {} products (total so far: {})", rows.productCount, total);
+                    return null;
+                }));
+            }
+            for (Future<?> future : pending) {
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    logger.error("Failed to save product chunk: {}", e.getMessage(), e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new long[] { productsCreated.get(), imagesCreated.get() };
+    }
+
+    private static final class ChunkRows {
+        final StringBuilder products = new StringBuilder();
+        final StringBuilder images = new StringBuilder();
+        long productCount;
+        long imageCount;
+    }
+
+    private ChunkRows generateChunk(long from, long to, SplittableRandom random, List<Brand> brands,
+            List<Category> categories, Zipf brandRanks, Zipf categoryRanks, Zipf imageCounts) {
+        ChunkRows rows = new ChunkRows();
+        for (long i = from; i < to; i++) {
+            Brand brand = brands.get(brandRanks.sample(random));
+            Category category = categories.get(categoryRanks.sample(random));
 
             String brandName = brand.getName();
-            String[] models = brandModels.getOrDefault(brandName, new String[] { "Model" });
-            String model = models[ThreadLocalRandom.current().nextInt(models.length)];
-            String modifier = modifiers[ThreadLocalRandom.current().nextInt(modifiers.length)];
-            String color = colors[ThreadLocalRandom.current().nextInt(colors.length)];
-            String size = sizes[ThreadLocalRandom.current().nextInt(sizes.length)];
-            String idx = String.format("%06d", i);
+            String[] models = BRAND_MODELS.getOrDefault(brandName, GENERIC_MODELS);
+            String model = models[random.nextInt(models.length)];
+            String modifier = MODIFIERS[random.nextInt(MODIFIERS.length)];
+            String color = COLORS[random.nextInt(COLORS.length)];
+            String size = SIZES[random.nextInt(SIZES.length)];
+            String idx = String.format("%08d", i);
 
             // build product name and SKU
             String productName = String.format("%s %s %s %s", brandName, model, modifier, idx).trim();
+            String sku = String.format("%s-%s-%s", prefix(brandName), prefix(model), idx);
 
-            String skuPrefix = safeAlnum(brandName).toUpperCase();
-            if (skuPrefix.length() > 3)
-                skuPrefix = skuPrefix.substring(0, 3);
-            String skuMid = safeAlnum(model).toUpperCase();
-            if (skuMid.length() > 3)
-                skuMid = skuMid.substring(0, 3);
-            String sku = String.format("%s-%s-%s", skuPrefix, skuMid, idx);
-
-            int suffix = 0;
-            while (existingSkus.contains(sku)) {
-                suffix++;
-                sku = String.format("%s-%s-%s-%d", skuPrefix, skuMid, idx, suffix);
-            }
-            existingSkus.add(sku);
+            UUID id = timeOrderedId(i, random);
+            String slug = SlugGenerator.generateSlug(productName) + "-" + id.toString().substring(28);
+            LocalDateTime createdAt = BASE_TIME.plusSeconds(i);
 
-            double base = 10 + (Math.abs(brandName.hashCode()) % 1000);
-            BigDecimal price = BigDecimal.valueOf(Math.round((base + (i % 500) * 0.73) * 100.0) / 100.0);
-            BigDecimal weight = BigDecimal.valueOf(Math.round((0.1 + (i % 200) * 0.11) * 100.0) / 100.0);
-            long stock = (i % 10 == 0) ? 0 : (i % 200) + 1;
-            Product.Status status = stock > 0 ? Product.Status.ACTIVE : Product.Status.OUT_OF_STOCK;
+            // Log-normal prices around 30 with a long tail, ratings clustered near 4
+            double price = Math.min(50_000, Math.max(1, Math.exp(3.4 + random.nextGaussian())));
+            double weight = 0.1 + random.nextDouble() * 20;
+            double rating = Math.min(5, Math.max(1, 4.1 + 0.6 * random.nextGaussian()));
+            double roll = random.nextDouble();
+            long stock = roll < 0.1 ? 0 : 1 + random.nextInt(500);
+            Product.Status status = roll < 0.1 ? Product.Status.OUT_OF_STOCK
+                    : roll < 0.13 ? Product.Status.IN_ACTIVE : Product.Status.ACTIVE;
 
             String description = String.format("%s — %s %s by %s. Color: %s, Size: %s. Unique id: %s",
                     productName, modifier, model, brandName, color, size, idx);
 
-            Product p = new Product.Builder()
-                    .setProductName(productName)
-                    .setDescription(description)
-                    .setPrice(price)
-                    .setWeight(weight)
-                    .setStockQuantity(stock)
-                    .setBrand(brand)
-                    .setCategory(category)
-                    .setSku(sku)
-                    .setSize(size)
-                    .setColor(color)
-                    .setStatus(status)
-                    .build();
-
-            // --- generate images for this product ---
-            // pick 1..4 images
-            int imagesCount = 1 + ThreadLocalRandom.current().nextInt(4); // 1..4
-            int displayOrder = 0;
+            csv(rows.products, id, productName, description, decimal(rating), stock, decimal(weight),
+                    decimal(price), color, size, sku, status, category.getId(), brand.getId(), createdAt,
+                    createdAt, slug);
+            rows.productCount++;
+
+            // --- images for this product: the first is primary and largest ---
+            int imagesCount = 1 + imageCounts.sample(random);
             for (int imgIndex = 1; imgIndex <= imagesCount; imgIndex++) {
-                // primary = first image
                 boolean isPrimary = (imgIndex == 1);
-
-                // choose dimensions (primary larger)
-                int width = isPrimary ? 1200 : (imgIndex == 2 ? 800 : 400);
-                int height = isPrimary ? 1200 : (imgIndex == 2 ? 800 : 400);
+                int dimension = isPrimary ? 1200 : (imgIndex == 2 ? 800 : 400);
 
                 // Dummy image URL — unique per SKU + imgIndex
                 // Example:
-                // https://dummyimage.com/1200x1200/cccccc/000000.png&text=APP-IPH-000001-1
+                // https://dummyimage.com/1200x1200/cccccc/000000.png&text=APP-IPH-00000001-1
                 String imageUrl = String.format("https://dummyimage.com/%dx%d/cccccc/000000.png&text=%s-%d",
-                        width, height, urlEncode(sku), imgIndex);
-
-                long fileSize = 10_000 + ThreadLocalRandom.current().nextInt(490_000); // 10KB .. 500KB
-                String mimeType = "image/png";
+                        dimension, dimension, urlEncode(sku), imgIndex);
                 String imageType = (isPrimary ? "MAIN" : (imgIndex == imagesCount ? "THUMBNAIL" : "GALLERY"));
-                String altText = String.format("%s - image %d", productName, imgIndex);
-
-                // create ProductImage and attach to product using addImage (maintains both
-                // sides)
-                ProductImage img = new ProductImage.Builder()
-                        .imageUrl(imageUrl)
-                        .product(p) // it's fine to set product here; addImage will set it again
-                        .isPrimary(isPrimary)
-                        .displayOrder(displayOrder++)
-                        .altText(altText)
-                        .imageType(imageType)
-                        .fileSize(fileSize)
-                        .mimeType(mimeType)
-                        .dimensions(width, height)
-                        .build();
 
-                // Keep bidirectional sync
-                p.addImage(img);
+                csv(rows.images, timeOrderedId(i, random), id, imageUrl, isPrimary, imgIndex - 1,
+                        String.format("%s - image %d", productName, imgIndex),
+                        10_000 + random.nextInt(490_000), imageType, "image/png", dimension, dimension,
+                        createdAt, createdAt);
+                rows.imageCount++;
             }
+        }
+        return rows;
+    }
 
-            batch.add(p);
+    private void writeChunk(ChunkRows rows) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            // Products first: each COPY commits on its own, so the images' foreign keys resolve
+            copy.copyIn(COPY_PRODUCTS, new ByteArrayInputStream(rows.products.toString()
+                    .getBytes(StandardCharsets.UTF_8)));
+            copy.copyIn(COPY_IMAGES, new ByteArrayInputStream(rows.images.toString()
+                    .getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    /**
+     * Time-ordered (version 7 layout) id whose timestamp is the product's creation time,
+     * so rows land at the right edge of the primary key index instead of all over it.
+     */
+    private static UUID timeOrderedId(long index, SplittableRandom random) {
+        long millis = BASE_MILLIS + index * 1000;
+        long msb = (millis << 16) | 0x7000L | (random.nextInt() & 0x0FFFL);
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
 
-            if (batch.size() >= BATCH_SIZE) {
-                saveBatch(batch);
-                batch.clear();
+    /**
+     * Samples ranks 0..n-1 with probability proportional to 1 / (rank + 1)^skew.
+     */
+    private static final class Zipf {
+        private final double[] cumulative;
+
+        Zipf(int n, double skew) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int rank = 0; rank < n; rank++) {
+                sum += 1 / Math.pow(rank + 1, skew);
+                cumulative[rank] = sum;
+            }
+            for (int rank = 0; rank < n; rank++) {
+                cumulative[rank] /= sum;
             }
         }
 
-        if (!batch.isEmpty())
-            saveBatch(batch);
+        int sample(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+        }
     }
 
-    private void saveBatch(List<Product> batch) {
-        try {
-            productRepository.saveAll(batch);
-            productsCreated += batch.size();
-            logger.info("Saved batch: {} products (total so far: {})", batch.size(), productsCreated);
-        } catch (Exception e) {
-            logger.error("Failed to save product batch: {}", e.getMessage(), e);
+    private static void csv(StringBuilder out, Object... values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            Object value = values[i];
+            if (value instanceof String text) {
+                out.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else if (value != null) {
+                out.append(value);
+            }
         }
+        out.append('\n');
+    }
+
+    private static String decimal(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    private static String prefix(String s) {
+        String cleaned = safeAlnum(s).toUpperCase();
+        return cleaned.length() > 3 ? cleaned.substring(0, 3) : cleaned;
     }
 
     private static String safeAlnum(String s) {
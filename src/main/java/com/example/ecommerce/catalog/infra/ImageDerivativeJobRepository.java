@@ -0,0 +1,59 @@
+package com.example.ecommerce.catalog.infra;
+
+import com.example.ecommerce.catalog.domain.ImageDerivativeJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ImageDerivativeJobRepository extends JpaRepository<ImageDerivativeJob, UUID> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO image_derivative_jobs (id, source_image_id, status, attempts, available_at, created_at, updated_at)
+            VALUES (gen_random_uuid(), :sourceImageId, 'PENDING', 0, now(), now(), now())
+            """, nativeQuery = true)
+    void enqueue(@Param("sourceImageId") UUID sourceImageId);
+
+    /**
+     * Atomically moves up to {@code limit} ready jobs to RUNNING and returns them.
+     * Jobs left RUNNING for more than {@code staleAfterMs} belonged to a node that died
+     * and are claimed again. SKIP LOCKED lets several nodes poll concurrently. All times
+     * come from the database clock, so clock skew between nodes cannot reclaim live jobs.
+     */
+    @Query(value = """
+            UPDATE image_derivative_jobs
+            SET status = 'RUNNING', locked_at = now(), attempts = attempts + 1, updated_at = now()
+            WHERE id IN (
+                SELECT id FROM image_derivative_jobs
+                WHERE (status = 'PENDING' AND available_at <= now())
+                   OR (status = 'RUNNING' AND locked_at < now() - :staleAfterMs * interval '1 millisecond')
+                ORDER BY available_at
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED)
+            RETURNING *
+            """, nativeQuery = true)
+    List<ImageDerivativeJob> claim(@Param("limit") int limit, @Param("staleAfterMs") long staleAfterMs);
+
+    /**
+     * Sets the outcome of a claimed job; it becomes claimable again {@code delayMs} after
+     * the database's {@code now()}. Called from worker threads, outside any service
+     * transaction.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE image_derivative_jobs
+            SET status = :status, last_error = :lastError, available_at = now() + :delayMs * interval '1 millisecond',
+                locked_at = NULL, updated_at = now()
+            WHERE id = :id
+            """, nativeQuery = true)
+    void release(@Param("id") UUID id,
+            @Param("status") String status,
+            @Param("lastError") String lastError,
+            @Param("delayMs") long delayMs);
+}
@@ -0,0 +1,19 @@
+package com.example.ecommerce.catalog.infra;
+
+import java.util.UUID;
+
+/**
+ * An image row as seen by the storage reconciliation: just enough to match it
+ * against a stored object and delete it when the object is gone.
+ */
+public interface ImageUrlRow {
+    UUID getId();
+
+    String getImageUrl();
+
+    /**
+     * Whether the row is older than the reconciliation's grace period, and so old
+     * enough that a missing object is not just a listing race.
+     */
+    boolean getSettled();
+}
@@ -0,0 +1,15 @@
+package com.example.ecommerce.catalog.infra;
+
+import java.util.UUID;
+
+/**
+ * A product's primary image or one of its resized variants, as considered when
+ * picking the image shown on listing pages.
+ */
+public interface ListingImageRow {
+    UUID getProductId();
+
+    String getImageUrl();
+
+    Integer getWidth();
+}
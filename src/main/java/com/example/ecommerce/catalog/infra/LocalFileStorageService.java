@@ -0,0 +1,130 @@
+package com.example.ecommerce.catalog.infra;
+
+import com.example.ecommerce.catalog.app.FileStorageService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Filesystem-backed storage for on-prem nodes and local benchmarking. Files are
+ * written to a temporary name through a FileChannel, forced to disk and atomically
+ * renamed into a sharded layout ({directory}/{ab}/{cd}/{uuid}.{ext}), so readers never
+ * see a partial file and no directory grows beyond a few hundred entries. Files are
+ * served by LocalFileController.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "catalog.local-storage.enabled", havingValue = "true")
+public class LocalFileStorageService implements FileStorageService {
+    private final Path root;
+    private final String baseUrl;
+
+    public LocalFileStorageService(
+            @Value("${catalog.local-storage.root:./data/files}") String root,
+            @Value("${catalog.local-storage.base-url:http://localhost:8080/files}") String baseUrl) throws IOException {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        Files.createDirectories(this.root);
+    }
+
+    @Override
+    public String storeFile(MultipartFile file, String directory) {
+        String name = UUID.randomUUID().toString().replace("-", "");
+        String relative = (directory == null || directory.isBlank() ? "" : directory.strip() + "/")
+                + name.substring(0, 2) + "/" + name.substring(2, 4) + "/" + name + extensionOf(file.getOriginalFilename());
+        Path target = resolve(relative)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid storage directory: " + directory));
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = target.resolveSibling(".tmp-" + name);
+            try (InputStream in = file.getInputStream();
+                    ReadableByteChannel source = Channels.newChannel(in);
+                    FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW,
+                            StandardOpenOption.WRITE)) {
+                long size = file.getSize();
+                long written = 0;
+                while (written < size) {
+                    long transferred = channel.transferFrom(source, written, size - written);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    written += transferred;
+                }
+                if (written != size) {
+                    // Deleted below instead of being moved into place truncated
+                    throw new EOFException("Upload ended after " + written + " of " + size + " bytes");
+                }
+                channel.force(true);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            move(temp, target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store file " + relative, e);
+        }
+        log.info("File stored locally: {}", relative);
+        return baseUrl + "/" + relative;
+    }
+
+    @Override
+    public void deleteFile(String fileUrl) {
+        if (fileUrl == null || !fileUrl.startsWith(baseUrl + "/")) {
+            return;
+        }
+        resolve(fileUrl.substring(baseUrl.length() + 1)).ifPresent(path -> {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete file " + path, e);
+            }
+        });
+    }
+
+    /**
+     * Maps a path relative to the storage root to a file, or empty when it would
+     * escape the root or names a temporary file.
+     */
+    public Optional<Path> resolve(String relative) {
+        Path path = root.resolve(relative).normalize();
+        if (!path.startsWith(root) || path.equals(root) || path.getFileName().toString().startsWith(".")) {
+            return Optional.empty();
+        }
+        return Optional.of(path);
+    }
+
+    // -------------------- private helpers --------------------
+
+    private void move(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private String extensionOf(String fileName) {
+        if (fileName == null || !fileName.contains(".")) {
+            return "";
+        }
+        String extension = fileName.substring(fileName.lastIndexOf(".")).toLowerCase();
+        return extension.matches("\\.[a-z0-9]{1,10}") ? extension : "";
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.ecommerce.catalog.infra;
+
+import com.example.ecommerce.catalog.domain.ProductCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ProductCountRepository extends JpaRepository<ProductCount, UUID> {
+
+    interface SubtreeCountRow {
+        long getSubtreeTotal();
+
+        long getSubtreeActive();
+    }
+
+    /**
+     * Reads an owner's subtree counters and locks the row until the transaction ends, so
+     * no concurrent {@link #increment} of it can commit in between.
+     */
+    @Query(value = """
+            SELECT subtree_product_count AS subtreeTotal, subtree_active_product_count AS subtreeActive
+            FROM product_counts
+            WHERE owner_id = :ownerId
+            FOR UPDATE
+            """, nativeQuery = true)
+    Optional<SubtreeCountRow> lockSubtreeCounts(@Param("ownerId") UUID ownerId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO product_counts (owner_id, owner_type, product_count, active_product_count,
+                                        subtree_product_count, subtree_active_product_count, updated_at)
+            VALUES (:ownerId, :ownerType, :total, :active, :subtreeTotal, :subtreeActive, now())
+            ON CONFLICT (owner_id) DO UPDATE SET
+                product_count = product_counts.product_count + EXCLUDED.product_count,
+                active_product_count = product_counts.active_product_count + EXCLUDED.active_product_count,
+                subtree_product_count = product_counts.subtree_product_count + EXCLUDED.subtree_product_count,
+                subtree_active_product_count = product_counts.subtree_active_product_count
+                                               + EXCLUDED.subtree_active_product_count,
+                updated_at = now()
+            """, nativeQuery = true)
+    void increment(@Param("ownerId") UUID ownerId,
+            @Param("ownerType") String ownerType,
+            @Param("total") long total,
+            @Param("active") long active,
+            @Param("subtreeTotal") long subtreeTotal,
+            @Param("subtreeActive") long subtreeActive);
+
+    /**
+     * Blocks {@link #increment} callers until the reconciling transaction ends and waits
+     * for those already holding uncommitted increments, so every delta is either part of
+     * what the reconcile reads or applied on top of what it writes.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE product_counts IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForReconcile();
+
+    /**
+     * Recomputes every counter from the products and categories tables in one statement:
+     * direct counts per category and brand, subtree counts rolled up the category tree.
+     * Writes only rows that drifted, deletes rows of owners that no longer have any, and
+     * returns the number of rows changed.
+     */
+    @Query(value = """
+            WITH RECURSIVE ancestry AS (
+                SELECT id AS category_id, id AS ancestor_id, 0 AS depth FROM categories
+                UNION ALL
+                SELECT a.category_id, c.parent_id, a.depth + 1
+                FROM ancestry a JOIN categories c ON c.id = a.ancestor_id
+                WHERE c.parent_id IS NOT NULL AND a.depth < :maxDepth
+            ),
+            direct AS (
+                SELECT category_id, count(*) AS total, count(*) FILTER (WHERE status = :active) AS active
+                FROM products
+                GROUP BY category_id
+            ),
+            subtree AS (
+                SELECT a.ancestor_id, sum(d.total) AS total, sum(d.active) AS active
+                FROM ancestry a JOIN direct d ON d.category_id = a.category_id
+                GROUP BY a.ancestor_id
+            ),
+            computed AS (
+                SELECT c.id AS owner_id, 'CATEGORY' AS owner_type,
+                       COALESCE(d.total, 0) AS total, COALESCE(d.active, 0) AS active,
+                       COALESCE(s.total, 0) AS subtree_total, COALESCE(s.active, 0) AS subtree_active
+                FROM categories c
+                LEFT JOIN direct d ON d.category_id = c.id
+                LEFT JOIN subtree s ON s.ancestor_id = c.id
+                UNION ALL
+                SELECT brand_id, 'BRAND', count(*), count(*) FILTER (WHERE status = :active),
+                       count(*), count(*) FILTER (WHERE status = :active)
+                FROM products
+                GROUP BY brand_id
+            ),
+            removed AS (
+                DELETE FROM product_counts pc
+                WHERE NOT EXISTS (SELECT 1 FROM computed c WHERE c.owner_id = pc.owner_id)
+                RETURNING 1
+            ),
+            written AS (
+                INSERT INTO product_counts (owner_id, owner_type, product_count, active_product_count,
+                                            subtree_product_count, subtree_active_product_count, updated_at)
+                SELECT owner_id, owner_type, total, active, subtree_total, subtree_active, now()
+                FROM computed
+                ON CONFLICT (owner_id) DO UPDATE SET
+                    product_count = EXCLUDED.product_count,
+                    active_product_count = EXCLUDED.active_product_count,
+                    subtree_product_count = EXCLUDED.subtree_product_count,
+                    subtree_active_product_count = EXCLUDED.subtree_active_product_count,
+                    updated_at = now()
+                WHERE (product_counts.product_count, product_counts.active_product_count,
+                       product_counts.subtree_product_count, product_counts.subtree_active_product_count)
+                      IS DISTINCT FROM
+                      (EXCLUDED.product_count, EXCLUDED.active_product_count,
+                       EXCLUDED.subtree_product_count, EXCLUDED.subtree_active_product_count)
+                RETURNING 1
+            )
+            SELECT (SELECT count(*) FROM written) + (SELECT count(*) FROM removed)
+            """, nativeQuery = true)
+    long recomputeAll(@Param("active") String active, @Param("maxDepth") int maxDepth);
+}
@@ -0,0 +1,23 @@
+package com.example.ecommerce.catalog.infra;
+
+import com.example.ecommerce.catalog.domain.ProductImage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface ProductImageBulkRepository {
+
+    /**
+     * Makes {@code imageId} the only primary image of the product in one UPDATE and
+     * returns every image of the product in display order. Returns an empty list when
+     * the image does not belong to the product.
+     */
+    List<ProductImage> swapPrimary(UUID productId, UUID imageId);
+
+    /**
+     * Applies all display orders in one UPDATE ... FROM (VALUES ...) and returns every
+     * image of the product in the new display order.
+     */
+    List<ProductImage> reorder(UUID productId, Map<UUID, Integer> displayOrders);
+}
@@ -0,0 +1,112 @@
+package com.example.ecommerce.catalog.infra;
+
+import com.example.ecommerce.catalog.domain.ProductImage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.EntityKey;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Set-based image updates. Each method is a single statement whose RETURNING clause
+ * (or trailing SELECT in the same statement) hands back the new state, so callers
+ * need neither an existence check beforehand nor a re-query afterwards.
+ * <p>
+ * Hibernate maps a returned row onto the instance already in the persistence context
+ * without reading its columns, so images that were managed before the statement are
+ * refreshed afterwards; all others are hydrated from the returned rows.
+ */
+public class ProductImageBulkRepositoryImpl implements ProductImageBulkRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ProductImage> swapPrimary(UUID productId, UUID imageId) {
+        Set<UUID> managed = managedImageIds();
+        Query query = entityManager.createNativeQuery("""
+                UPDATE product_images
+                SET is_primary = (id = :imageId), updated_at = now()
+                WHERE product_id = :productId
+                  AND EXISTS (SELECT 1 FROM product_images WHERE id = :imageId AND product_id = :productId)
+                RETURNING *
+                """, ProductImage.class)
+                .setParameter("imageId", imageId)
+                .setParameter("productId", productId);
+        List<ProductImage> images = refresh(managed, query.getResultList());
+        images.sort(Comparator.comparing(ProductImage::getDisplayOrder));
+        return images;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ProductImage> reorder(UUID productId, Map<UUID, Integer> displayOrders) {
+        Set<UUID> managed = managedImageIds();
+        StringBuilder values = new StringBuilder();
+        int position = 1;
+        for (int i = 0; i < displayOrders.size(); i++) {
+            if (i > 0) {
+                values.append(", ");
+            }
+            values.append("(CAST(?").append(position++).append(" AS uuid), CAST(?")
+                    .append(position++).append(" AS integer))");
+        }
+        int productParam = position;
+
+        Query query = entityManager.createNativeQuery("""
+                WITH v(id, display_order) AS (VALUES %s),
+                updated AS (
+                    UPDATE product_images pi
+                    SET display_order = v.display_order, updated_at = now()
+                    FROM v
+                    WHERE pi.id = v.id AND pi.product_id = ?%d
+                    RETURNING pi.*
+                )
+                SELECT * FROM updated
+                UNION ALL
+                SELECT * FROM product_images
+                WHERE product_id = ?%d AND id NOT IN (SELECT id FROM v)
+                ORDER BY display_order
+                """.formatted(values, productParam, productParam), ProductImage.class);
+
+        position = 1;
+        for (Map.Entry<UUID, Integer> entry : displayOrders.entrySet()) {
+            query.setParameter(position++, entry.getKey());
+            query.setParameter(position++, entry.getValue());
+        }
+        query.setParameter(productParam, productId);
+        return refresh(managed, query.getResultList());
+    }
+
+    // -------------------- private helpers --------------------
+
+    /**
+     * Flushes pending changes, so the statement sees them, and returns the ids of the
+     * images currently in the persistence context.
+     */
+    private Set<UUID> managedImageIds() {
+        entityManager.flush();
+        return entityManager.unwrap(Session.class).getStatistics().getEntityKeys().stream()
+                .map(EntityKey.class::cast)
+                .filter(key -> key.getEntityName().equals(ProductImage.class.getName()))
+                .map(key -> (UUID) key.getIdentifier())
+                .collect(Collectors.toSet());
+    }
+
+    private List<ProductImage> refresh(Set<UUID> managed, List<ProductImage> images) {
+        for (ProductImage image : images) {
+            if (managed.contains(image.getId())) {
+                entityManager.refresh(image);
+            }
+        }
+        return images;
+    }
+}
@@ -1,16 +1,57 @@
 package com.example.ecommerce.catalog.infra;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
 import com.example.ecommerce.catalog.domain.ProductImage;
 
 @Repository
-public interface ProductImageRepository extends JpaRepository<ProductImage, UUID> {
+public interface ProductImageRepository extends JpaRepository<ProductImage, UUID>, ProductImageBulkRepository {
 
     List<ProductImage> findByProductIdOrderByDisplayOrderAsc(UUID productId);
 
     Optional<ProductImage> findByIdAndProductId(UUID id, UUID productId);
+
+    List<ProductImage> findBySourceImageId(UUID sourceImageId);
+
+    @Query("SELECT i.imageUrl FROM ProductImage i WHERE i.product.id = :productId")
+    List<String> findImageUrlsByProductId(@Param("productId") UUID productId);
+
+    @Query("SELECT i.imageUrl FROM ProductImage i WHERE i.product.brand.id = :brandId")
+    List<String> findImageUrlsByBrandId(@Param("brandId") UUID brandId);
+
+    @Query("""
+            SELECT i.product.id AS productId, i.imageUrl AS imageUrl, i.width AS width
+            FROM ProductImage i
+            WHERE i.product.id IN :productIds
+              AND ((i.isPrimary = true AND i.sourceImageId IS NULL)
+                OR i.sourceImageId IN (SELECT p.id FROM ProductImage p
+                                       WHERE p.product.id IN :productIds AND p.isPrimary = true))
+            """)
+    List<ListingImageRow> findListingImages(@Param("productIds") Collection<UUID> productIds);
+
+    /**
+     * Streams image rows with URLs in [from, to) in byte order, the order storage
+     * listings use, through idx_image_url_c. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = """
+            SELECT id, image_url AS imageUrl, created_at < :settledBefore AS settled
+            FROM product_images
+            WHERE image_url COLLATE "C" >= :from AND image_url COLLATE "C" < :to
+            ORDER BY image_url COLLATE "C"
+            """, nativeQuery = true)
+    Stream<ImageUrlRow> streamImageUrls(@Param("from") String from,
+            @Param("to") String to,
+            @Param("settledBefore") LocalDateTime settledBefore);
 }
@@ -0,0 +1,19 @@
+package com.example.ecommerce.catalog.infra;
+
+import com.example.ecommerce.catalog.dto.brand.BrandProductCursor;
+import com.example.ecommerce.catalog.dto.brand.BrandProductDto;
+import com.example.ecommerce.catalog.dto.brand.BrandProductFilter;
+import com.example.ecommerce.catalog.dto.brand.BrandProductSort;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ProductKeysetRepository {
+
+    /**
+     * Returns at most {@code limit} products of the brand that come strictly after
+     * {@code after} in the given sort order, as projections rather than entities.
+     */
+    List<BrandProductDto> findBrandProducts(UUID brandId, BrandProductFilter filter, BrandProductSort sort,
+            BrandProductCursor after, int limit);
+}
@@ -0,0 +1,101 @@
+package com.example.ecommerce.catalog.infra;
+
+import com.example.ecommerce.catalog.domain.Product;
+import com.example.ecommerce.catalog.dto.brand.BrandProductCursor;
+import com.example.ecommerce.catalog.dto.brand.BrandProductDto;
+import com.example.ecommerce.catalog.dto.brand.BrandProductFilter;
+import com.example.ecommerce.catalog.dto.brand.BrandProductSort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset pagination over (brand_id, sort key, id), served by the composite indexes
+ * from V4. Each page is a single index range scan no matter how deep the client has
+ * paged, unlike OFFSET which reads and discards every earlier row.
+ */
+public class ProductKeysetRepositoryImpl implements ProductKeysetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BrandProductDto> findBrandProducts(UUID brandId, BrandProductFilter filter, BrandProductSort sort,
+            BrandProductCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BrandProductDto> cq = cb.createQuery(BrandProductDto.class);
+        Root<Product> product = cq.from(Product.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(product.get("brand").get("id"), brandId));
+        if (filter.status() != null) {
+            predicates.add(cb.equal(product.get("status"), filter.status()));
+        }
+        if (filter.minPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(product.get("price"), filter.minPrice()));
+        }
+        if (filter.maxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(product.get("price"), filter.maxPrice()));
+        }
+        if (Boolean.TRUE.equals(filter.inStock())) {
+            predicates.add(cb.greaterThan(product.get("stockQuantity"), 0L));
+        }
+
+        Path<UUID> id = product.get("id");
+        Path<? extends Comparable<?>> key;
+        if (sort.byPrice()) {
+            Path<BigDecimal> price = product.get("price");
+            key = price;
+            if (after != null) {
+                predicates.add(after(cb, price, after.price(), id, after.id(), sort.descending()));
+            }
+        } else {
+            Path<LocalDateTime> createdAt = product.get("createdAt");
+            key = createdAt;
+            if (after != null) {
+                predicates.add(after(cb, createdAt, after.createdAt(), id, after.id(), sort.descending()));
+            }
+        }
+
+        cq.select(cb.construct(BrandProductDto.class,
+                id,
+                product.get("productName"),
+                product.get("slug"),
+                product.get("price"),
+                product.get("stockQuantity"),
+                product.get("status"),
+                product.get("rating"),
+                product.get("createdAt")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(sort.descending()
+                        ? List.of(cb.desc(key), cb.desc(id))
+                        : List.of(cb.asc(key), cb.asc(id)));
+
+        return entityManager.createQuery(cq).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * (key, id) past the cursor. The leading {@code key <= value} ({@code >=} ascending) is
+     * implied by the OR but gives the planner an index condition on the sort column, so the
+     * scan starts at the cursor instead of at the brand's first row.
+     */
+    private <Y extends Comparable<? super Y>> Predicate after(CriteriaBuilder cb, Path<Y> key, Y value,
+            Path<UUID> id, UUID lastId, boolean descending) {
+        if (descending) {
+            return cb.and(cb.lessThanOrEqualTo(key, value),
+                    cb.or(cb.lessThan(key, value), cb.lessThan(id, lastId)));
+        }
+        return cb.and(cb.greaterThanOrEqualTo(key, value),
+                cb.or(cb.greaterThan(key, value), cb.greaterThan(id, lastId)));
+    }
+}
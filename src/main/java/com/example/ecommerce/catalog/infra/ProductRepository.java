@@ -1,15 +1,56 @@
 package com.example.ecommerce.catalog.infra;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
 import com.example.ecommerce.catalog.domain.Brand;
 import com.example.ecommerce.catalog.domain.Product;
 
 public interface ProductRepository extends JpaRepository<Product, UUID>,
-        JpaSpecificationExecutor<Product> {
+        JpaSpecificationExecutor<Product>, ProductKeysetRepository {
+    // The listing shows the brand name of every product on the page
+    @Override
+    @EntityGraph(attributePaths = "brand")
+    Page<Product> findAll(Pageable pageable);
+
     List<Product> findByBrand(Brand brand);
 
     List<Product> findByBrandId(UUID brandId);
+
+    Optional<Product> findBySlug(String slug);
+
+    /**
+     * Streams every id and slug. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id AS id, p.slug AS slug FROM Product p")
+    Stream<SlugRow> streamAllSlugs();
+
+    @Query("SELECT p.slug FROM Product p WHERE p.id = :id")
+    Optional<String> findSlugById(@Param("id") UUID id);
+
+    @Query("SELECT p.category.id AS ownerId, COUNT(p) AS total, "
+            + "SUM(CASE WHEN p.status = :active THEN 1 ELSE 0 END) AS active "
+            + "FROM Product p WHERE p.brand.id = :brandId GROUP BY p.category.id")
+    List<OwnerCountRow> countByCategoryForBrand(@Param("brandId") UUID brandId,
+            @Param("active") Product.Status active);
+
+    interface OwnerCountRow {
+        UUID getOwnerId();
+
+        long getTotal();
+
+        long getActive();
+    }
 }
@@ -0,0 +1,46 @@
+package com.example.ecommerce.catalog.infra;
+
+import com.example.ecommerce.catalog.domain.SlugRedirect;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface SlugRedirectRepository extends JpaRepository<SlugRedirect, UUID> {
+
+    Optional<SlugRedirect> findByTargetTypeAndOldSlug(SlugRedirect.TargetType targetType, String oldSlug);
+
+    /**
+     * Streams the old slugs of one target type with the ids they redirect to. Must be
+     * consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT r.targetId AS id, r.oldSlug AS slug FROM SlugRedirect r WHERE r.targetType = :targetType")
+    Stream<SlugRow> streamOldSlugs(@Param("targetType") SlugRedirect.TargetType targetType);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO slug_redirects (id, target_type, old_slug, target_id, created_at)
+            VALUES (gen_random_uuid(), :targetType, :oldSlug, :targetId, now())
+            ON CONFLICT (target_type, old_slug) DO UPDATE SET target_id = EXCLUDED.target_id
+            """, nativeQuery = true)
+    void upsert(@Param("targetType") String targetType,
+            @Param("oldSlug") String oldSlug,
+            @Param("targetId") UUID targetId);
+
+    @Modifying
+    @Query("DELETE FROM SlugRedirect r WHERE r.targetType = :targetType AND r.oldSlug = :oldSlug")
+    void deleteByTargetTypeAndOldSlug(@Param("targetType") SlugRedirect.TargetType targetType,
+            @Param("oldSlug") String oldSlug);
+
+    @Modifying
+    @Query("DELETE FROM SlugRedirect r WHERE r.targetId = :targetId")
+    void deleteByTargetId(@Param("targetId") UUID targetId);
+}
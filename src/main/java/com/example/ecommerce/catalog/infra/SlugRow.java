@@ -0,0 +1,9 @@
+package com.example.ecommerce.catalog.infra;
+
+import java.util.UUID;
+
+public interface SlugRow {
+    UUID getId();
+
+    String getSlug();
+}
@@ -0,0 +1,125 @@
+package com.example.ecommerce.catalog.infra;
+
+import com.example.ecommerce.catalog.domain.StoredObject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StoredObjectRepository extends JpaRepository<StoredObject, String> {
+
+    /**
+     * Creates the index row for this hash if needed, without taking a reference, and
+     * returns whether the object is already in storage. Touching updated_at keeps an
+     * unreferenced row from being swept while the upload is being attached.
+     */
+    @Transactional
+    @Query(value = """
+            INSERT INTO stored_objects (content_hash, file_key, content_type, file_size, ref_count, stored,
+                                        created_at, updated_at)
+            VALUES (:contentHash, :fileKey, :contentType, :fileSize, 0, FALSE, now(), now())
+            ON CONFLICT (content_hash) DO UPDATE
+            SET updated_at = now()
+            RETURNING stored
+            """, nativeQuery = true)
+    boolean register(@Param("contentHash") String contentHash,
+            @Param("fileKey") String fileKey,
+            @Param("contentType") String contentType,
+            @Param("fileSize") long fileSize);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE stored_objects
+            SET stored = TRUE, updated_at = now()
+            WHERE content_hash = :contentHash
+            """, nativeQuery = true)
+    int markStored(@Param("contentHash") String contentHash);
+
+    /**
+     * Takes a reference for a new image row. Runs in the transaction that inserts the
+     * row; returns 0 when the object is unknown, not uploaded yet or being swept.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE stored_objects
+            SET ref_count = ref_count + 1, updated_at = now()
+            WHERE file_key = :fileKey AND stored
+            """, nativeQuery = true)
+    int acquire(@Param("fileKey") String fileKey);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE stored_objects
+            SET ref_count = GREATEST(ref_count - :count, 0), updated_at = now()
+            WHERE file_key = :fileKey
+            """, nativeQuery = true)
+    int release(@Param("fileKey") String fileKey, @Param("count") int count);
+
+    /**
+     * Clears the stored flag of up to {@code limit} objects unreferenced since before
+     * {@code before}, without touching updated_at. From then on {@link #acquire} refuses
+     * them and {@link #register} makes uploads send the bytes again, so the flag stays
+     * correct whether or not the sweep goes on to delete the object.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE stored_objects
+            SET stored = FALSE
+            WHERE content_hash IN (SELECT content_hash FROM stored_objects
+                                   WHERE ref_count = 0 AND stored AND updated_at < :before
+                                   ORDER BY updated_at
+                                   LIMIT :limit
+                                   FOR UPDATE SKIP LOCKED)
+            """, nativeQuery = true)
+    int retireUnreferenced(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    /**
+     * Locks retired objects that are still unreferenced and have not been uploaded
+     * again since. The row locks make a concurrent {@link #register} wait until the
+     * sweep has deleted both object and row.
+     */
+    @Query(value = """
+            SELECT * FROM stored_objects
+            WHERE ref_count = 0 AND NOT stored AND updated_at < :before
+            ORDER BY updated_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<StoredObject> lockRetired(@Param("before") LocalDateTime before, @Param("limit") int limit);
+
+    /**
+     * Blocks reference changes until the transaction ends, so {@link #recount} cannot
+     * overwrite an acquire or release that commits while it runs.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE stored_objects IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRecount();
+
+    /**
+     * Sets every reference count to the number of image rows pointing at the object,
+     * repairing counts left wrong by deletes that bypassed the application, such as
+     * database cascades. Rows are matched on the key part of the URL, so images saved
+     * under an earlier public domain still count. Returns the number of corrected rows.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE stored_objects so
+            SET ref_count = c.refs, updated_at = now()
+            FROM (SELECT s.content_hash, COALESCE(r.refs, 0) AS refs
+                  FROM stored_objects s
+                  LEFT JOIN (SELECT substring(pi.image_url FROM '^[^:/]+://[^/]+/(.*)$') AS file_key,
+                                    count(*) AS refs
+                             FROM product_images pi
+                             GROUP BY 1) r ON r.file_key = s.file_key
+                 ) c
+            WHERE so.content_hash = c.content_hash AND so.ref_count <> c.refs
+            """, nativeQuery = true)
+    int recount();
+}
@@ -0,0 +1,97 @@
+package com.example.ecommerce.catalog.infra;
+
+import com.example.ecommerce.catalog.domain.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface UploadSessionRepository extends JpaRepository<UploadSession, UUID> {
+
+    interface PartRow {
+        int getPartNumber();
+
+        String getEtag();
+
+        long getSize();
+    }
+
+    /**
+     * Records a received chunk and slides the session expiry. Re-sent chunks replace
+     * the earlier part.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            WITH part AS (
+                INSERT INTO upload_session_parts (session_id, part_number, etag, size)
+                VALUES (:sessionId, :partNumber, :etag, :size)
+                ON CONFLICT (session_id, part_number) DO UPDATE SET etag = EXCLUDED.etag, size = EXCLUDED.size
+            )
+            UPDATE upload_sessions SET expires_at = :expiresAt, updated_at = now() WHERE id = :sessionId
+            """, nativeQuery = true)
+    void recordPart(@Param("sessionId") UUID sessionId,
+            @Param("partNumber") int partNumber,
+            @Param("etag") String etag,
+            @Param("size") long size,
+            @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Query(value = """
+            SELECT part_number AS partNumber, etag, size FROM upload_session_parts
+            WHERE session_id = :sessionId ORDER BY part_number
+            """, nativeQuery = true)
+    List<PartRow> findParts(@Param("sessionId") UUID sessionId);
+
+    /**
+     * Moves an open session to COMPLETING, or takes over one whose completion has not
+     * finished within {@code timeoutMs}; returns whether this caller may complete it.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE upload_sessions SET status = 'COMPLETING', updated_at = now()
+            WHERE id = :sessionId
+              AND (status = 'OPEN'
+                OR (status = 'COMPLETING' AND updated_at < now() - :timeoutMs * interval '1 millisecond'))
+            """, nativeQuery = true)
+    int claimCompletion(@Param("sessionId") UUID sessionId, @Param("timeoutMs") long timeoutMs);
+
+    /**
+     * Reopens a session whose completion failed, so the client can retry.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            UPDATE upload_sessions SET status = 'OPEN', updated_at = now()
+            WHERE id = :sessionId AND status = 'COMPLETING'
+            """, nativeQuery = true)
+    int reopen(@Param("sessionId") UUID sessionId);
+
+    /**
+     * Records the image created from the session. Runs in the transaction that inserts
+     * the image row; returns 0 if the completion was taken over in the meantime.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE upload_sessions SET status = 'COMPLETED', image_id = :imageId, updated_at = now()
+            WHERE id = :sessionId AND status = 'COMPLETING'
+            """, nativeQuery = true)
+    int markCompleted(@Param("sessionId") UUID sessionId, @Param("imageId") UUID imageId);
+
+    @Query(value = """
+            SELECT * FROM upload_sessions
+            WHERE expires_at < :now
+              AND (status <> 'COMPLETING' OR updated_at < now() - :timeoutMs * interval '1 millisecond')
+            ORDER BY expires_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<UploadSession> lockExpired(@Param("now") LocalDateTime now,
+            @Param("timeoutMs") long timeoutMs,
+            @Param("limit") int limit);
+}
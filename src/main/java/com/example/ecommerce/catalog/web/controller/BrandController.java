@@ -3,6 +3,9 @@ package com.example.ecommerce.catalog.web.controller;
 import com.example.ecommerce.catalog.app.BrandService;
 import com.example.ecommerce.catalog.domain.Brand;
 import com.example.ecommerce.catalog.domain.Product;
+import com.example.ecommerce.catalog.dto.brand.BrandProductFilter;
+import com.example.ecommerce.catalog.dto.brand.BrandProductPageDto;
+import com.example.ecommerce.catalog.dto.brand.BrandProductSort;
 import com.example.ecommerce.catalog.dto.brand.BrandResponseDto;
 import com.example.ecommerce.catalog.dto.brand.CreateBrandRequestDto;
 import com.example.ecommerce.catalog.dto.brand.PaginatedBrandsResponseDto;
@@ -10,13 +13,14 @@ import com.example.ecommerce.catalog.dto.brand.UpdateBrandRequestDto;
 import com.example.ecommerce.catalog.dto.brand.UpdateBrandStatusRequestDto;
 import com.example.ecommerce.catalog.dto.category.PageResponseDto;
 import com.example.ecommerce.catalog.dto.common.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.math.BigDecimal;
 import java.util.UUID;
 
 @RestController
@@ -44,9 +48,26 @@ public class BrandController {
         return ResponseEntity.ok(ApiResponse.success("Brand retrieved successfully", brand));
     }
 
+    @GetMapping("/slug/{slug}")
+    public ResponseEntity<ApiResponse<BrandResponseDto>> getBrandBySlug(@PathVariable(name = "slug") String slug) {
+        BrandResponseDto brand = brandService.getBrandBySlug(slug);
+        return ResponseEntity.ok(ApiResponse.success("Brand retrieved successfully", brand));
+    }
+
     @GetMapping("/{id}/product")
-    public ResponseEntity<ApiResponse<List<Product>>> getProductsByBrand(@PathVariable(name = "id") UUID id) {
-        List<Product> products = brandService.getProductsByBrand(id);
+    @Operation(summary = "Get a brand's products", description = "Keyset-paginated: pass the nextCursor of the "
+            + "previous page as cursor to fetch the next one.")
+    public ResponseEntity<ApiResponse<BrandProductPageDto>> getProductsByBrand(
+            @PathVariable(name = "id") UUID id,
+            @Parameter(description = "Cursor from the previous page") @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Page size (max 100)", example = "20") @RequestParam(defaultValue = "20", name = "size") int size,
+            @RequestParam(defaultValue = "NEWEST", name = "sort") BrandProductSort sort,
+            @RequestParam(name = "status", required = false) Product.Status status,
+            @RequestParam(name = "minPrice", required = false) BigDecimal minPrice,
+            @RequestParam(name = "maxPrice", required = false) BigDecimal maxPrice,
+            @RequestParam(name = "inStock", required = false) Boolean inStock) {
+        BrandProductPageDto products = brandService.getProductsByBrand(id, cursor, size, sort,
+                new BrandProductFilter(status, minPrice, maxPrice, inStock));
         return ResponseEntity.ok(ApiResponse.success("Products retrieved successfully", products));
     }
 
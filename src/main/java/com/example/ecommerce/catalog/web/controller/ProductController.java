@@ -5,6 +5,7 @@ import com.example.ecommerce.catalog.domain.Product;
 import com.example.ecommerce.catalog.dto.category.PageResponseDto;
 import com.example.ecommerce.catalog.dto.common.ApiResponse;
 import com.example.ecommerce.catalog.dto.product.*;
+import com.example.ecommerce.common.metrics.QueryBudget;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -27,6 +28,7 @@ public class ProductController {
         }
 
         @GetMapping
+        @QueryBudget(maxStatements = 5)
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Successfully retrieved categories", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Product.class)))
         public ResponseEntity<ApiResponse<PageResponseDto<PaginatedProductListResponseDto>>> getPaginatedProducts(
                         @Parameter(description = "Page number (0-based)", example = "0") @RequestParam(defaultValue = "0", name = "page") int page,
@@ -38,12 +40,20 @@ public class ProductController {
         }
 
         @GetMapping("/{id}")
+        @QueryBudget(maxStatements = 5)
         public ResponseEntity<ApiResponse<Product>> getProductById(@PathVariable(name = "id") UUID id) {
                 Product product = productService.getProductById(id);
                 return ResponseEntity.ok(ApiResponse.success("Product retrieved successfully", product));
         }
 
+        @GetMapping("/slug/{slug}")
+        public ResponseEntity<ApiResponse<Product>> getProductBySlug(@PathVariable(name = "slug") String slug) {
+                Product product = productService.getProductBySlug(slug);
+                return ResponseEntity.ok(ApiResponse.success("Product retrieved successfully", product));
+        }
+
         @GetMapping("/search")
+        @QueryBudget(maxStatements = 6)
         public ResponseEntity<ApiResponse<PageResponseDto<SearchProductResponseDto>>> search(
                         @RequestParam(name = "searchQuery") String searchQuery,
                         @RequestParam(name = "inStock") Boolean inStock,
@@ -113,4 +123,10 @@ public class ProductController {
                 return ResponseEntity.status(HttpStatus.ACCEPTED)
                                 .body(ApiResponse.accepted("Product category updated successfully", product));
         }
+
+        @DeleteMapping("/{id}")
+        public ResponseEntity<ApiResponse<Boolean>> deleteProduct(@PathVariable(name = "id") UUID id) {
+                Boolean deleted = productService.deleteProduct(id);
+                return ResponseEntity.ok(ApiResponse.success("Product deleted successfully", deleted));
+        }
 }
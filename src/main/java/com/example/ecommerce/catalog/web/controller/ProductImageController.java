@@ -1,9 +1,11 @@
 package com.example.ecommerce.catalog.web.controller;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -15,22 +17,36 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.ecommerce.catalog.app.ImageReconciliationService;
 import com.example.ecommerce.catalog.app.ProductImageService;
+import com.example.ecommerce.catalog.app.ProductImageUploadService;
+import com.example.ecommerce.catalog.app.ResumableUploadService;
 import com.example.ecommerce.catalog.dto.common.ApiResponse;
+import com.example.ecommerce.catalog.dto.image.CompleteUploadRequestDto;
+import com.example.ecommerce.catalog.dto.image.FinalizeUploadRequestDto;
 import com.example.ecommerce.catalog.dto.image.ImageOrderRequestDto;
+import com.example.ecommerce.catalog.dto.image.ImageReconciliationReportDto;
 import com.example.ecommerce.catalog.dto.image.ProductImageRequestDto;
 import com.example.ecommerce.catalog.dto.image.ProductImageResponseDto;
+import com.example.ecommerce.catalog.dto.image.UploadSessionDto;
+import com.example.ecommerce.catalog.dto.image.UploadSlotRequestDto;
+import com.example.ecommerce.catalog.dto.image.UploadSlotResponseDto;
+import com.example.ecommerce.common.config.PresignedUrlCache;
 import com.example.ecommerce.common.config.S3Service;
+import com.example.ecommerce.common.config.UploadedFile;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -41,32 +57,137 @@ import lombok.RequiredArgsConstructor;
 public class ProductImageController {
 
     private final ProductImageService productImageService;
+    private final ProductImageUploadService productImageUploadService;
+    private final ResumableUploadService resumableUploadService;
+    private final ImageReconciliationService imageReconciliationService;
     private final S3Service s3Service;
+    private final PresignedUrlCache presignedUrlCache;
 
     @PostMapping(value = "/upload/{productId}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Upload product image")
-    public ResponseEntity<ApiResponse<Map<String, String>>> uploadFile(
+    public ResponseEntity<ApiResponse<Map<String, Object>>> uploadFile(
             @Parameter(description = "Product ID", required = true) @PathVariable("productId") UUID productId,
 
             @Parameter(description = "Image file to upload", required = true, schema = @Schema(type = "string", format = "binary")) @RequestPart("file") MultipartFile file)
             throws IOException {
 
-        Map<String, String> response = s3Service.generateProductImageUploadUrl(file, productId);
+        UploadedFile uploaded = productImageUploadService.upload(file, productId);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("fileKey", uploaded.fileKey());
+        response.put("publicUrl", s3Service.getPublicUrl(uploaded.fileKey()));
+        response.put("mimeType", uploaded.contentType());
+        response.put("fileSize", uploaded.fileSize());
+        response.put("width", uploaded.width());
+        response.put("height", uploaded.height());
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.created("Image uploaded successfully", response));
     }
 
+    @PostMapping("/upload/{productId}/slot")
+    @Operation(summary = "Request direct upload slot", description = "Issue a presigned URL the client uploads the image to directly; call finalize afterwards")
+    public ResponseEntity<ApiResponse<UploadSlotResponseDto>> createUploadSlot(
+            @Parameter(description = "Product ID", required = true) @PathVariable("productId") UUID productId,
+            @Valid @RequestBody UploadSlotRequestDto request) {
+
+        UploadSlotResponseDto slot = productImageUploadService.createUploadSlot(productId, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.created("Upload slot created successfully", slot));
+    }
+
+    @PostMapping("/upload/{productId}/finalize")
+    @Operation(summary = "Finalize direct upload", description = "Verify a directly uploaded image and add it to the product")
+    public ResponseEntity<ApiResponse<ProductImageResponseDto>> finalizeUpload(
+            @Parameter(description = "Product ID", required = true) @PathVariable("productId") UUID productId,
+            @Valid @RequestBody FinalizeUploadRequestDto request) {
+
+        ProductImageResponseDto createdImage = productImageUploadService.finalizeUpload(productId, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.created("Image added to product successfully", createdImage));
+    }
+
+    @PostMapping("/upload/{productId}/sessions")
+    @Operation(summary = "Start resumable upload", description = "Open an upload session; send the file in chunks of the returned chunk size")
+    public ResponseEntity<ApiResponse<UploadSessionDto>> createUploadSession(
+            @Parameter(description = "Product ID", required = true) @PathVariable("productId") UUID productId,
+            @Valid @RequestBody UploadSlotRequestDto request) {
+
+        UploadSessionDto session = resumableUploadService.createSession(productId, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.created("Upload session created successfully", session));
+    }
+
+    @PatchMapping(value = "/upload/sessions/{sessionId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Upload a chunk", description = "Send the raw chunk starting at Upload-Offset; a chunk may be re-sent after a failure")
+    public ResponseEntity<ApiResponse<UploadSessionDto>> uploadChunk(
+            @Parameter(description = "Upload session ID", required = true) @PathVariable("sessionId") UUID sessionId,
+            @Parameter(description = "Byte offset of the chunk", required = true) @RequestHeader("Upload-Offset") long offset,
+            HttpServletRequest request) throws IOException {
+
+        // Read the body straight from the servlet stream so the chunk is never buffered
+        UploadSessionDto session = resumableUploadService.writeChunk(sessionId, offset,
+                request.getContentLengthLong(), request.getInputStream());
+        return ResponseEntity.ok(ApiResponse.success("Chunk received", session));
+    }
+
+    @GetMapping("/upload/sessions/{sessionId}")
+    @Operation(summary = "Get resumable upload status", description = "Report received bytes and the offset to resume from")
+    public ResponseEntity<ApiResponse<UploadSessionDto>> getUploadSession(
+            @Parameter(description = "Upload session ID", required = true) @PathVariable("sessionId") UUID sessionId) {
+
+        return ResponseEntity.ok(ApiResponse.success(resumableUploadService.getStatus(sessionId)));
+    }
+
+    @PostMapping("/upload/sessions/{sessionId}/complete")
+    @Operation(summary = "Complete resumable upload", description = "Assemble the received chunks and add the image to the product")
+    public ResponseEntity<ApiResponse<ProductImageResponseDto>> completeUploadSession(
+            @Parameter(description = "Upload session ID", required = true) @PathVariable("sessionId") UUID sessionId,
+            @Valid @RequestBody CompleteUploadRequestDto request) {
+
+        ProductImageResponseDto createdImage = resumableUploadService.complete(sessionId, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.created("Image added to product successfully", createdImage));
+    }
+
+    @PostMapping(value = "/upload/{productId}/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload product images", description = "Upload several images in parallel; the request thread is released while they transfer")
+    public CompletableFuture<ResponseEntity<ApiResponse<List<UploadedFile>>>> uploadFiles(
+            @Parameter(description = "Product ID", required = true) @PathVariable("productId") UUID productId,
+
+            @Parameter(description = "Image files to upload", required = true) @RequestPart("files") List<MultipartFile> files) {
+
+        return productImageUploadService.uploadAll(files, productId)
+                .thenApply(uploaded -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(ApiResponse.created("Images uploaded successfully", uploaded)));
+    }
+
     @PostMapping
     @Operation(summary = "Add Image to Product", description = "Add a new image to a product")
     public ResponseEntity<ApiResponse<ProductImageResponseDto>> addImageToProduct(
             @Valid @RequestBody ProductImageRequestDto request) {
 
-        ProductImageResponseDto createdImage = productImageService.addImageToProduct(request);
+        ProductImageResponseDto createdImage = productImageUploadService.addImage(request);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.created("Image added to product successfully", createdImage));
     }
 
-    @GetMapping("/{id}")
+    @PostMapping("/reconcile")
+    @Operation(summary = "Reconcile image storage", description = "Find stored objects without image rows and image rows without stored objects; deletes them unless dryRun")
+    public CompletableFuture<ResponseEntity<ApiResponse<ImageReconciliationReportDto>>> reconcileImages(
+            @Parameter(description = "Only report, do not delete") @RequestParam(value = "dryRun", defaultValue = "true") boolean dryRun) {
+
+        return imageReconciliationService.reconcile(dryRun)
+                .thenApply(report -> ResponseEntity.ok(
+                        ApiResponse.success("Image storage reconciled successfully", report)));
+    }
+
+    @GetMapping("/presign-cache/stats")
+    @Operation(summary = "Presigned URL cache statistics", description = "Hit rate and signing cost of the presigned download URL cache")
+    public ResponseEntity<ApiResponse<PresignedUrlCache.Stats>> getPresignCacheStats() {
+        return ResponseEntity.ok(ApiResponse.success("Presigned URL cache statistics retrieved successfully",
+                presignedUrlCache.stats()));
+    }
+
+    @GetMapping("/{productId}")
     @Operation(summary = "Get Product Images", description = "Retrieve all images for a specific product")
     public ResponseEntity<ApiResponse<List<ProductImageResponseDto>>> getProductImages(
             @PathVariable("productId") UUID id) {
@@ -74,7 +195,7 @@ public class ProductImageController {
         return ResponseEntity.ok(ApiResponse.success("Product images retrieved successfully", images));
     }
 
-    @PatchMapping("/{imageId}/primary")
+    @PatchMapping("/{productId}/{imageId}/primary")
     @Operation(summary = "Set Primary Image", description = "Mark an image as primary for the product")
     public ResponseEntity<ApiResponse<List<ProductImageResponseDto>>> setPrimaryImage(
             @PathVariable("productId") UUID productId,
@@ -84,7 +205,7 @@ public class ProductImageController {
         return ResponseEntity.ok(ApiResponse.accepted("Primary image set successfully", updatedImages));
     }
 
-    @PutMapping("/order")
+    @PutMapping("/{productId}/order")
     @Operation(summary = "Reorder Images", description = "Update the display order of multiple images")
     public ResponseEntity<ApiResponse<List<ProductImageResponseDto>>> reorderImages(
             @PathVariable("productId") UUID productId,
@@ -94,7 +215,7 @@ public class ProductImageController {
         return ResponseEntity.ok(ApiResponse.accepted("Images reordered successfully", updatedImages));
     }
 
-    @DeleteMapping("/{imageId}")
+    @DeleteMapping("/{productId}/{imageId}")
     @Operation(summary = "Delete Product Image", description = "Delete a specific product image")
     public ResponseEntity<ApiResponse<Void>> deleteProductImage(
             @PathVariable("productId") UUID productId,
@@ -0,0 +1,34 @@
+package com.example.ecommerce.catalog.web.controller;
+
+import com.example.ecommerce.catalog.app.SlugRouterService;
+import com.example.ecommerce.catalog.dto.common.ApiResponse;
+import com.example.ecommerce.catalog.dto.slug.SlugResolutionDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/slug")
+@Tag(name = "Slugs", description = "Storefront URL resolution APIs")
+public class SlugController {
+    private final SlugRouterService slugRouter;
+
+    public SlugController(SlugRouterService slugRouter) {
+        this.slugRouter = slugRouter;
+    }
+
+    @GetMapping("/{slug}")
+    @Operation(summary = "Resolve a slug", description = "Resolves a category, brand or product slug to its type "
+            + "and id. Old slugs resolve with redirect=true and the current canonical slug.")
+    public ResponseEntity<ApiResponse<SlugResolutionDto>> resolve(@PathVariable(name = "slug") String slug) {
+        return slugRouter.resolve(slug)
+                .map(resolution -> ResponseEntity.ok(ApiResponse.success("Slug resolved successfully", resolution)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.notFound("No category, brand or product found with slug: " + slug)));
+    }
+}
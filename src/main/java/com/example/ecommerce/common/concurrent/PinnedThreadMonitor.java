@@ -0,0 +1,104 @@
+package com.example.ecommerce.common.concurrent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier, typically by blocking inside
+ * a {@code synchronized} block or a native frame somewhere in the JDBC, Hibernate or HTTP
+ * client code. Pinned threads hold a carrier for the whole wait, so a handful of them can
+ * stall every other request. Listens to the JDK's {@code jdk.VirtualThreadPinned} flight
+ * recorder event in-process, records the {@code jvm.threads.virtual.pinned} timer tagged
+ * with the innermost non-JDK frame, and logs the stack of each new site once.
+ */
+@Slf4j
+public class PinnedThreadMonitor implements MeterBinder {
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 15;
+    // Sites become tag values; anything beyond this many is counted as "other"
+    private static final int MAX_SITES = 100;
+
+    private final Duration threshold;
+    private final Set<String> sites = ConcurrentHashMap.newKeySet();
+    private volatile MeterRegistry registry;
+    private RecordingStream stream;
+
+    public PinnedThreadMonitor(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        if (stream != null) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Reporting virtual threads pinned for {} ms or longer", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    // -------------------- private helpers --------------------
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String site = siteOf(frames);
+        if (!sites.contains(site) && sites.size() >= MAX_SITES) {
+            site = "other";
+        }
+        Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent pinned to their carrier thread")
+                .tag("site", site)
+                .register(registry)
+                .record(event.getDuration());
+        if (sites.add(site)) {
+            log.warn("Virtual thread pinned for {} ms at {}:\n{}", event.getDuration().toMillis(), site,
+                    frames.stream()
+                            .limit(LOGGED_FRAMES)
+                            .map(frame -> "\tat " + describe(frame))
+                            .collect(Collectors.joining("\n")));
+        }
+    }
+
+    /**
+     * The innermost frame outside the JDK: the library or application code that blocked
+     * while holding a monitor.
+     */
+    private static String siteOf(List<RecordedFrame> frames) {
+        return frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(PinnedThreadMonitor::describe)
+                .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk.")
+                        && !frame.startsWith("sun."))
+                .findFirst()
+                .orElse("unknown");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+}
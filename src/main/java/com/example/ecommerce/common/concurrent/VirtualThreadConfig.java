@@ -0,0 +1,87 @@
+package com.example.ecommerce.common.concurrent;
+
+import com.example.ecommerce.common.datasource.ConnectionLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extras for virtual-thread mode ({@code spring.threads.virtual.enabled=true} on Java 21+):
+ * pinning diagnostics and a {@link ConnectionLimiter} in front of the data source, so the
+ * number of requests that can reach the database no longer follows from the size of the
+ * Tomcat thread pool.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public PinnedThreadMonitor pinnedThreadMonitor(
+            @Value("${catalog.virtual-threads.pinned-threshold-ms:20}") long thresholdMillis) {
+        return new PinnedThreadMonitor(Duration.ofMillis(thresholdMillis));
+    }
+
+    /**
+     * Ordered, so it wraps the pool before the statement listeners of
+     * {@code MetricsConfig} wrap the result.
+     */
+    @Bean
+    public static ConnectionLimiterPostProcessor connectionLimiterPostProcessor(
+            @Value("${catalog.virtual-threads.max-db-connections:${spring.datasource.hikari.maximum-pool-size:10}}")
+            int maxConnections,
+            @Value("${catalog.virtual-threads.db-connection-wait-ms:3000}") long maxWaitMillis) {
+        return new ConnectionLimiterPostProcessor(maxConnections, maxWaitMillis);
+    }
+
+    public static final class ConnectionLimiterPostProcessor implements BeanPostProcessor, Ordered, MeterBinder {
+        private final int maxConnections;
+        private final long maxWaitMillis;
+        private final List<ConnectionLimiter> limiters = new ArrayList<>();
+        private MeterRegistry registry;
+
+        private ConnectionLimiterPostProcessor(int maxConnections, long maxWaitMillis) {
+            this.maxConnections = maxConnections;
+            this.maxWaitMillis = maxWaitMillis;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimiter)) {
+                ConnectionLimiter limiter = new ConnectionLimiter(dataSource, maxConnections, maxWaitMillis);
+                bind(limiter);
+                return limiter;
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+
+        // The data source may be created before or after the registry is bound
+        @Override
+        public synchronized void bindTo(MeterRegistry registry) {
+            this.registry = registry;
+            limiters.forEach(limiter -> limiter.bindTo(registry));
+        }
+
+        private synchronized void bind(ConnectionLimiter limiter) {
+            limiters.add(limiter);
+            if (registry != null) {
+                limiter.bindTo(registry);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.ecommerce.common.concurrent;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads for the application's own pools. In virtual-thread mode
+ * ({@code spring.threads.virtual.enabled=true} on Java 21 or later, which also moves Tomcat
+ * request handling and {@code @Scheduled} jobs onto virtual threads) pools doing blocking
+ * I/O get virtual threads; otherwise everything runs on named daemon platform threads.
+ * The pools stay bounded either way, since their size is what limits concurrent calls to
+ * S3 and the database.
+ */
+@Slf4j
+@Component
+public class WorkerThreads {
+    private final boolean virtual;
+
+    public WorkerThreads(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+        if (!virtual && environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("Virtual threads requested but Java {} does not support them, using platform threads",
+                    Runtime.version().feature());
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Threads for work that mostly waits on the network, such as S3 and JDBC calls.
+     */
+    public ThreadFactory io(String namePrefix) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory();
+        }
+        return platform(namePrefix);
+    }
+
+    /**
+     * Daemon platform threads named {@code namePrefix1}, {@code namePrefix2}, ... for
+     * CPU-bound work, which virtual threads would not make any faster.
+     */
+    public static ThreadFactory platform(String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
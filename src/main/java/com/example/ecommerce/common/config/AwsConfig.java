@@ -4,11 +4,17 @@ import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import com.example.ecommerce.common.metrics.S3MetricPublisher;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.net.URI;
+import java.time.Duration;
+
 @Configuration
 public class AwsConfig {
 
@@ -21,23 +27,45 @@ public class AwsConfig {
     @Value("${aws.region:us-east-1}")
     private String region;
 
+    // Optional S3-compatible endpoint (e.g. a local MinIO) for development and benchmarks
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${aws.s3.path-style-access:false}")
+    private boolean pathStyleAccess;
+
     @Bean
-    public S3Client s3Client() {
+    public S3Client s3Client(S3MetricPublisher s3MetricPublisher, AwsProperties awsProperties) {
         AwsBasicCredentials aws = AwsBasicCredentials.create(accessKeyId, secretAccessKey);
+        // Bounds every call at the SDK level too, so a timed-out transfer does not keep
+        // blocking its pool thread
+        Duration operationTimeout = awsProperties.getS3().getOperationTimeout();
 
-        return S3Client.builder()
+        S3ClientBuilder builder = S3Client.builder()
                 .region(Region.of(region))
                 .credentialsProvider(StaticCredentialsProvider.create(aws))
-                .build();
+                .forcePathStyle(pathStyleAccess)
+                .overrideConfiguration(o -> o
+                        .addMetricPublisher(s3MetricPublisher)
+                        .apiCallTimeout(operationTimeout)
+                        .apiCallAttemptTimeout(operationTimeout));
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
     }
 
     @Bean
     public S3Presigner s3Presigner() {
-        return S3Presigner.builder()
+        S3Presigner.Builder builder = S3Presigner.builder()
                 .region(Region.of(region))
                 .credentialsProvider(StaticCredentialsProvider.create(
                         AwsBasicCredentials.create(accessKeyId, secretAccessKey)
                 ))
-                .build();
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(pathStyleAccess).build());
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        return builder.build();
     }
 }
@@ -3,6 +3,10 @@ package com.example.ecommerce.common.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
 
 @Data
 @Component
@@ -20,7 +24,30 @@ public class AwsProperties {
         private String bucketName;
         private String endpoint;
         private Long presignedUrlExpiration = 3600L;
+        // Cached download URLs are re-signed once less than this much validity is left
+        private Duration presignedUrlRefreshMargin = Duration.ofMinutes(5);
+        private int presignedUrlCacheSize = 100_000;
         private String cloudFrontDomain;
         private String productsFolder = "products";
+        // Content-addressed (deduplicated) images live under this folder
+        private String contentAddressedFolder = "images";
+        private boolean pathStyleAccess = false;
+
+        // Streaming uploads: files above the threshold go through multipart upload in
+        // parts of partSize; maxInFlightBytes caps part buffers across all uploads.
+        private DataSize multipartThreshold = DataSize.ofMegabytes(16);
+        private DataSize partSize = DataSize.ofMegabytes(8);
+        private DataSize maxInFlightBytes = DataSize.ofMegabytes(128);
+        private Duration uploadPermitTimeout = Duration.ofSeconds(30);
+
+        // Background transfer pool used for batch uploads and deletes
+        private int transferConcurrency = 8;
+        private int transferQueueCapacity = 256;
+        private Duration operationTimeout = Duration.ofMinutes(2);
+
+        // Direct browser-to-S3 image uploads
+        private DataSize maxImageSize = DataSize.ofMegabytes(20);
+        private List<String> allowedImageTypes = List.of("image/jpeg", "image/png", "image/webp", "image/gif");
+        private Duration uploadSlotExpiration = Duration.ofMinutes(15);
     }
 }
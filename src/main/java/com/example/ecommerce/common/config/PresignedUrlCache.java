@@ -0,0 +1,141 @@
+package com.example.ecommerce.common.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches presigned GET URLs per file key so listing pages do not pay a SigV4
+ * signature per image per request. An entry is re-signed once less than the refresh
+ * margin of its validity is left, so every URL handed out stays usable for at least
+ * that margin.
+ */
+@Slf4j
+@Component
+public class PresignedUrlCache implements MeterBinder {
+    private final S3Presigner s3Presigner;
+    private final AwsProperties awsProperties;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder signNanos = new LongAdder();
+
+    public PresignedUrlCache(S3Presigner s3Presigner, AwsProperties awsProperties) {
+        this.s3Presigner = s3Presigner;
+        this.awsProperties = awsProperties;
+    }
+
+    private record Entry(String url, long refreshAtMillis) {
+    }
+
+    public record Stats(long hits, long misses, double hitRate, double averageSignMicros, int size) {
+    }
+
+    public String get(String fileKey) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(fileKey);
+        if (entry != null && now < entry.refreshAtMillis()) {
+            hits.increment();
+            return entry.url();
+        }
+        evictIfFull(now);
+        // compute() signs at most once per key even when many requests miss together
+        return entries.compute(fileKey, (key, current) -> {
+            if (current != null && now < current.refreshAtMillis()) {
+                hits.increment();
+                return current;
+            }
+            return sign(key, now);
+        }).url();
+    }
+
+    /**
+     * Presigns a page of keys at once, returning them in the order given.
+     */
+    public Map<String, String> getAll(Collection<String> fileKeys) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (String fileKey : fileKeys) {
+            urls.computeIfAbsent(fileKey, this::get);
+        }
+        return urls;
+    }
+
+    public void invalidate(String fileKey) {
+        entries.remove(fileKey);
+    }
+
+    public Stats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return new Stats(hitCount, missCount,
+                total == 0 ? 0 : (double) hitCount / total,
+                missCount == 0 ? 0 : signNanos.sum() / 1000.0 / missCount,
+                entries.size());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("presigned.url.cache.requests", hits, LongAdder::sum)
+                .description("Presigned URL lookups")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("presigned.url.cache.requests", misses, LongAdder::sum)
+                .description("Presigned URL lookups")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionTimer.builder("presigned.url.cache.sign", this, cache -> cache.misses.sum(),
+                        cache -> cache.signNanos.sum(), TimeUnit.NANOSECONDS)
+                .description("Time spent signing URLs on cache misses")
+                .register(registry);
+        Gauge.builder("presigned.url.cache.size", entries, Map::size)
+                .description("Presigned URLs currently cached")
+                .register(registry);
+    }
+
+    // -------------------- private helpers --------------------
+
+    private Entry sign(String fileKey, long now) {
+        misses.increment();
+        Duration validity = Duration.ofSeconds(awsProperties.getS3().getPresignedUrlExpiration());
+        long start = System.nanoTime();
+        String url = s3Presigner.presignGetObject(b -> b
+                .signatureDuration(validity)
+                .getObjectRequest(r -> r.bucket(awsProperties.getS3().getBucketName()).key(fileKey)))
+                .url().toString();
+        signNanos.add(System.nanoTime() - start);
+        return new Entry(url, now + validity.toMillis() - refreshMarginMillis(validity));
+    }
+
+    private long refreshMarginMillis(Duration validity) {
+        long margin = awsProperties.getS3().getPresignedUrlRefreshMargin().toMillis();
+        // A margin longer than the validity would make every entry stale on arrival
+        return Math.min(margin, validity.toMillis() / 2);
+    }
+
+    private void evictIfFull(long now) {
+        int maxEntries = awsProperties.getS3().getPresignedUrlCacheSize();
+        if (entries.size() < maxEntries) {
+            return;
+        }
+        entries.values().removeIf(entry -> now >= entry.refreshAtMillis());
+        if (entries.size() >= maxEntries) {
+            log.debug("Presigned URL cache full with {} live entries, clearing", entries.size());
+            entries.clear();
+        }
+    }
+}
@@ -8,8 +8,10 @@ import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -21,51 +23,62 @@ public class S3Service {
     private final S3Client s3Client;
     private final S3Presigner s3Presigner;
     private final AwsProperties awsProperties;
+    private final S3StreamingUploader streamingUploader;
+    private final S3TransferService transferService;
+    private final PresignedUrlCache presignedUrlCache;
 
     // ==================== PRODUCT SPECIFIC METHODS ====================
 
     /**
      * Upload product image to S3
      */
-    public String uploadProductImage(MultipartFile file, UUID productId) throws IOException {
+    public UploadedFile uploadProductImage(MultipartFile file, UUID productId) throws IOException {
         String fileKey = generateProductImageKey(file.getOriginalFilename(), productId);
         return uploadFileToS3(file, fileKey);
     }
 
     /**
-     * Generate presigned URL for product image upload
-     * 
-     * @throws IOException
+     * Allocate a fresh key for an image of the product, for direct uploads
      */
-    public Map<String, String> generateProductImageUploadUrl(MultipartFile file, UUID productId) throws IOException {
-        String fileKey = generateProductImageKey(file.getOriginalFilename(), productId);
-        String folderKey = uploadFileToS3(file, fileKey);
+    public String newProductImageKey(String originalFileName, UUID productId) {
+        return generateProductImageKey(originalFileName, productId);
+    }
 
-        String contentType = getContentTypeFromFileName(folderKey);
-        String presignedUrl = generatePresignedUploadUrl(fileKey, contentType);
-        String publicUrl = getPublicUrl(fileKey);
+    /**
+     * Deterministic key for a resized variant, so regenerating it overwrites the old one
+     */
+    public String productImageVariantKey(UUID productId, UUID sourceImageId, String variant, String extension) {
+        return productImagePrefix(productId) + "derived/" + sourceImageId + "-" + variant.toLowerCase() + extension;
+    }
 
-        Map<String, String> response = new HashMap<>();
-        response.put("presignedUrl", presignedUrl);
-        response.put("fileKey", fileKey);
-        response.put("publicUrl", publicUrl);
-        response.put("message", "Presigned URL generated successfully for product image");
+    /**
+     * Key of a content-addressed object: images/{h0h1}/{h2h3}/{sha256}{ext}
+     */
+    public String contentAddressedKey(String sha256, String extension) {
+        return contentAddressedPrefix() + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/"
+                + sha256 + extension;
+    }
 
-        return response;
+    public String contentAddressedPrefix() {
+        return awsProperties.getS3().getContentAddressedFolder() + "/";
     }
 
     /**
-     * Upload multiple product images
+     * Folder every image key of the product lives under
      */
-    public List<String> uploadProductImages(List<MultipartFile> files, UUID productId) throws IOException {
-        List<String> uploadedFileKeys = new ArrayList<>();
+    public String productImagePrefix(UUID productId) {
+        return awsProperties.getS3().getProductsFolder() + "/" + productId + "/";
+    }
 
+    /**
+     * Upload multiple product images in parallel on the transfer pool
+     */
+    public CompletableFuture<List<UploadedFile>> uploadProductImages(List<MultipartFile> files, UUID productId) {
+        Map<String, MultipartFile> filesByKey = new LinkedHashMap<>();
         for (MultipartFile file : files) {
-            String fileKey = uploadProductImage(file, productId);
-            uploadedFileKeys.add(fileKey);
+            filesByKey.put(generateProductImageKey(file.getOriginalFilename(), productId), file);
         }
-
-        return uploadedFileKeys;
+        return transferService.uploadAll(filesByKey);
     }
 
     /**
@@ -77,28 +90,10 @@ public class S3Service {
     }
 
     /**
-     * Delete all images for a product
+     * Delete all images for a product. Completes with the number of objects deleted.
      */
-    public void deleteAllProductImages(Long productId) {
-        try {
-            // List all objects in the product folder
-            ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
-                    .bucket(awsProperties.getS3().getBucketName())
-                    .prefix(awsProperties.getS3().getProductsFolder() + "/" + productId + "/")
-                    .build();
-
-            ListObjectsV2Response listResponse = s3Client.listObjectsV2(listRequest);
-
-            // Delete all objects
-            for (S3Object s3Object : listResponse.contents()) {
-                deleteFile(s3Object.key());
-                log.info("Deleted product image: {}", s3Object.key());
-            }
-
-        } catch (S3Exception e) {
-            log.error("Error deleting product images: {}", e.awsErrorDetails().errorMessage());
-            throw new RuntimeException("Failed to delete product images", e);
-        }
+    public CompletableFuture<Integer> deleteAllProductImages(UUID productId) {
+        return transferService.deletePrefix(productImagePrefix(productId));
     }
 
     // ==================== GENERAL METHODS ====================
@@ -108,21 +103,105 @@ public class S3Service {
      */
     public String uploadFile(MultipartFile file, String folder) throws IOException {
         String fileKey = generateFileKey(file.getOriginalFilename(), folder);
-        return uploadFileToS3(file, fileKey);
+        return uploadFileToS3(file, fileKey).fileKey();
     }
 
-    private String uploadFileToS3(MultipartFile file, String fileKey) throws IOException {
-        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+    /**
+     * Upload bytes from a stream of known length to a specific key
+     */
+    public String uploadStream(InputStream in, long contentLength, String contentType, String fileKey)
+            throws IOException {
+        streamingUploader.upload(fileKey, contentType, in, contentLength);
+        return fileKey;
+    }
+
+    // ==================== MULTIPART METHODS ====================
+
+    /**
+     * Start a multipart upload and return its upload id
+     */
+    public String createMultipartUpload(String fileKey, String contentType) {
+        return s3Client.createMultipartUpload(b -> b
+                .bucket(awsProperties.getS3().getBucketName())
+                .key(fileKey)
+                .contentType(contentType))
+                .uploadId();
+    }
+
+    /**
+     * Stream one part of a multipart upload and return its ETag
+     */
+    public String uploadPart(String fileKey, String uploadId, int partNumber, InputStream in, long length) {
+        UploadPartRequest request = UploadPartRequest.builder()
                 .bucket(awsProperties.getS3().getBucketName())
                 .key(fileKey)
-                .contentType(file.getContentType())
-                .contentLength(file.getSize())
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength(length)
                 .build();
+        return s3Client.uploadPart(request, RequestBody.fromInputStream(in, length)).eTag();
+    }
 
-        s3Client.putObject(putObjectRequest, RequestBody.fromBytes(file.getBytes()));
+    /**
+     * Complete a multipart upload from its part numbers and ETags
+     */
+    public void completeMultipartUpload(String fileKey, String uploadId, SortedMap<Integer, String> eTagsByPart) {
+        List<CompletedPart> parts = eTagsByPart.entrySet().stream()
+                .map(part -> CompletedPart.builder().partNumber(part.getKey()).eTag(part.getValue()).build())
+                .toList();
+        s3Client.completeMultipartUpload(b -> b
+                .bucket(awsProperties.getS3().getBucketName())
+                .key(fileKey)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build()));
+    }
+
+    /**
+     * Abort a multipart upload, releasing the storage held by its parts
+     */
+    public void abortMultipartUpload(String fileKey, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(b -> b
+                    .bucket(awsProperties.getS3().getBucketName())
+                    .key(fileKey)
+                    .uploadId(uploadId));
+        } catch (NoSuchUploadException e) {
+            log.debug("Multipart upload {} for {} already gone", uploadId, fileKey);
+        }
+    }
+
+    /**
+     * Open a file for reading; the caller closes the stream
+     */
+    public InputStream openFile(String fileKey) {
+        return s3Client.getObject(b -> b
+                .bucket(awsProperties.getS3().getBucketName())
+                .key(fileKey));
+    }
+
+    private UploadedFile uploadFileToS3(MultipartFile file, String fileKey) throws IOException {
+        // Magic bytes win over the client's declared type, which wins over the extension
+        String fallbackContentType = file.getContentType() != null
+                ? file.getContentType()
+                : getContentTypeFromFileName(file.getOriginalFilename());
+        UploadedFile uploaded;
+        try (InputStream in = file.getInputStream()) {
+            uploaded = streamingUploader.uploadSniffed(fileKey, fallbackContentType, in, file.getSize());
+        }
 
         log.info("File uploaded successfully to S3: {}", fileKey);
-        return fileKey;
+        return uploaded;
+    }
+
+    /**
+     * Read the first bytes of a file with a ranged GET, e.g. to sniff an image header
+     */
+    public byte[] readFileHead(String fileKey, int bytes) {
+        return s3Client.getObjectAsBytes(b -> b
+                .bucket(awsProperties.getS3().getBucketName())
+                .key(fileKey)
+                .range("bytes=0-" + (bytes - 1)))
+                .asByteArray();
     }
 
     /**
@@ -143,20 +222,39 @@ public class S3Service {
     }
 
     /**
-     * Generate presigned URL for file download
+     * Generate presigned URL for a direct upload. Content type and length are signed,
+     * so storage rejects a PUT whose headers differ from the ones declared here.
      */
-    public String generatePresignedDownloadUrl(String fileKey) {
-        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+    public String generatePresignedUploadUrl(String fileKey, String contentType, long contentLength,
+            Duration expiration) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
                 .bucket(awsProperties.getS3().getBucketName())
                 .key(fileKey)
+                .contentType(contentType)
+                .contentLength(contentLength)
                 .build();
 
-        return s3Presigner.presignGetObject(b -> b
-                .signatureDuration(Duration.ofSeconds(awsProperties.getS3().getPresignedUrlExpiration()))
-                .getObjectRequest(getObjectRequest))
+        return s3Presigner.presignPutObject(b -> b
+                .signatureDuration(expiration)
+                .putObjectRequest(putObjectRequest))
                 .url().toString();
     }
 
+    /**
+     * Generate presigned URL for file download. URLs are cached and only re-signed
+     * shortly before they expire.
+     */
+    public String generatePresignedDownloadUrl(String fileKey) {
+        return presignedUrlCache.get(fileKey);
+    }
+
+    /**
+     * Generate presigned download URLs for a page of files, keyed by file key
+     */
+    public Map<String, String> generatePresignedDownloadUrls(Collection<String> fileKeys) {
+        return presignedUrlCache.getAll(fileKeys);
+    }
+
     /**
      * Delete file from S3
      */
@@ -167,9 +265,23 @@ public class S3Service {
                 .build();
 
         s3Client.deleteObject(deleteObjectRequest);
+        presignedUrlCache.invalidate(fileKey);
         log.info("File deleted from S3: {}", fileKey);
     }
 
+    /**
+     * Fetch object metadata, or empty if the key does not exist
+     */
+    public Optional<HeadObjectResponse> headObject(String fileKey) {
+        try {
+            return Optional.of(s3Client.headObject(b -> b
+                    .bucket(awsProperties.getS3().getBucketName())
+                    .key(fileKey)));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+
     /**
      * Check if file exists in S3
      */
@@ -190,6 +302,16 @@ public class S3Service {
         }
     }
 
+    /**
+     * Lazily lists the objects under a prefix, one page (at most 1,000 keys, in UTF-8
+     * byte order) per request. Pages are fetched only as the iteration reaches them.
+     */
+    public Iterable<ListObjectsV2Response> listFilePages(String prefix) {
+        return s3Client.listObjectsV2Paginator(b -> b
+                .bucket(awsProperties.getS3().getBucketName())
+                .prefix(prefix));
+    }
+
     // ==================== KEY GENERATION METHODS ====================
 
     /**
@@ -256,6 +378,18 @@ public class S3Service {
         }
     }
 
+    /**
+     * Reverse of getPublicUrl: the key a public URL points at, or empty when the URL
+     * is not one of ours
+     */
+    public Optional<String> keyFromPublicUrl(String url) {
+        String base = getPublicUrl("");
+        if (url == null || !url.startsWith(base) || url.length() == base.length()) {
+            return Optional.empty();
+        }
+        return Optional.of(url.substring(base.length()));
+    }
+
     /**
      * Get public URL for file
      */
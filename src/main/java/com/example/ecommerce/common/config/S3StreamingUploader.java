@@ -0,0 +1,157 @@
+package com.example.ecommerce.common.config;
+
+import com.example.ecommerce.common.util.ImageHeaderSniffer;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams uploads into S3 without holding whole files in heap.
+ * <p>
+ * Small files are sent as a single PutObject straight from the input stream. Larger
+ * files go through multipart upload: each upload reuses one part-sized buffer, so its
+ * memory stays constant whatever the file size, and that buffer is reserved against a
+ * global in-flight byte budget shared by all concurrent uploads.
+ */
+@Slf4j
+@Component
+public class S3StreamingUploader {
+    // S3 rejects multipart parts below 5 MiB, except for the last one
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final S3Client s3Client;
+    private final AwsProperties awsProperties;
+    private final int partSize;
+    private final Semaphore inFlightBytes;
+
+    public S3StreamingUploader(S3Client s3Client, AwsProperties awsProperties) {
+        this.s3Client = s3Client;
+        this.awsProperties = awsProperties;
+        AwsProperties.S3 s3 = awsProperties.getS3();
+        long budget = Math.min(Integer.MAX_VALUE, s3.getMaxInFlightBytes().toBytes());
+        if (budget < MIN_PART_SIZE) {
+            // A smaller budget would force parts below the S3 minimum
+            log.warn("aws.s3.max-in-flight-bytes of {} bytes is below the minimum part size, using {}",
+                    budget, MIN_PART_SIZE);
+            budget = MIN_PART_SIZE;
+        }
+        this.partSize = (int) Math.min(budget, Math.max(MIN_PART_SIZE, s3.getPartSize().toBytes()));
+        this.inFlightBytes = new Semaphore((int) budget, true);
+    }
+
+    /**
+     * Uploads {@code contentLength} bytes from {@code in} to {@code key}. The stream is
+     * read sequentially and never buffered beyond one part; the caller closes it.
+     */
+    public void upload(String key, String contentType, InputStream in, long contentLength) throws IOException {
+        if (contentLength <= awsProperties.getS3().getMultipartThreshold().toBytes()) {
+            PutObjectRequest request = PutObjectRequest.builder()
+                    .bucket(bucket())
+                    .key(key)
+                    .contentType(contentType)
+                    .contentLength(contentLength)
+                    .build();
+            s3Client.putObject(request, RequestBody.fromInputStream(in, contentLength));
+            return;
+        }
+
+        acquire(partSize);
+        try {
+            uploadMultipart(key, contentType, in, new byte[partSize]);
+        } finally {
+            inFlightBytes.release(partSize);
+        }
+    }
+
+    /**
+     * Like {@link #upload}, but first reads the image header from the head of the
+     * stream. The detected type replaces {@code fallbackContentType} as the stored
+     * content type; the header bytes are then replayed into the upload.
+     */
+    public UploadedFile uploadSniffed(String key, String fallbackContentType, InputStream in, long contentLength)
+            throws IOException {
+        byte[] prefix = in.readNBytes((int) Math.min(ImageHeaderSniffer.PREFIX_BYTES, contentLength));
+        Optional<ImageHeaderSniffer.ImageHeader> header = ImageHeaderSniffer.sniff(prefix, prefix.length);
+        String contentType = header.map(ImageHeaderSniffer.ImageHeader::mimeType).orElse(fallbackContentType);
+        upload(key, contentType, new SequenceInputStream(new ByteArrayInputStream(prefix), in), contentLength);
+        return new UploadedFile(key, contentType, contentLength,
+                header.map(ImageHeaderSniffer.ImageHeader::width).orElse(null),
+                header.map(ImageHeaderSniffer.ImageHeader::height).orElse(null));
+    }
+
+    // -------------------- private helpers --------------------
+
+    private void uploadMultipart(String key, String contentType, InputStream in, byte[] buffer) throws IOException {
+        String uploadId = s3Client.createMultipartUpload(b -> b
+                .bucket(bucket())
+                .key(key)
+                .contentType(contentType))
+                .uploadId();
+        List<CompletedPart> parts = new ArrayList<>();
+        try {
+            int read;
+            while ((read = in.readNBytes(buffer, 0, buffer.length)) > 0) {
+                int partNumber = parts.size() + 1;
+                int length = read;
+                UploadPartRequest request = UploadPartRequest.builder()
+                        .bucket(bucket())
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) length)
+                        .build();
+                // A fresh stream over the shared buffer per attempt keeps SDK retries
+                // possible without copying the part.
+                String eTag = s3Client.uploadPart(request, RequestBody.fromContentProvider(
+                        () -> new ByteArrayInputStream(buffer, 0, length), length, contentType))
+                        .eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+            }
+            s3Client.completeMultipartUpload(b -> b
+                    .bucket(bucket())
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build()));
+            log.debug("Multipart upload of {} completed in {} parts", key, parts.size());
+        } catch (IOException | RuntimeException e) {
+            abort(key, uploadId);
+            throw e;
+        }
+    }
+
+    private void abort(String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(b -> b.bucket(bucket()).key(key).uploadId(uploadId));
+        } catch (S3Exception e) {
+            log.warn("Failed to abort multipart upload {} for {}: {}", uploadId, key, e.getMessage());
+        }
+    }
+
+    private void acquire(int bytes) throws IOException {
+        try {
+            long timeout = awsProperties.getS3().getUploadPermitTimeout().toMillis();
+            if (!inFlightBytes.tryAcquire(bytes, timeout, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Upload capacity exhausted, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for upload capacity", e);
+        }
+    }
+
+    private String bucket() {
+        return awsProperties.getS3().getBucketName();
+    }
+}
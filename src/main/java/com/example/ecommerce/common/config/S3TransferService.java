@@ -0,0 +1,161 @@
+package com.example.ecommerce.common.config;
+
+import com.example.ecommerce.common.concurrent.WorkerThreads;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs S3 uploads and deletes on a dedicated, bounded pool so request threads never
+ * block on storage. At most {@code aws.s3.transfer-concurrency} operations run at once;
+ * further work queues up to {@code aws.s3.transfer-queue-capacity} and is rejected
+ * beyond that. Every returned future fails with a TimeoutException once
+ * {@code aws.s3.operation-timeout} has elapsed; the S3 client aborts each call after the
+ * same timeout, which frees the pool thread.
+ */
+@Slf4j
+@Service
+public class S3TransferService {
+    // Hard limit of the DeleteObjects API
+    private static final int MAX_DELETE_BATCH = 1000;
+
+    private final S3Client s3Client;
+    private final S3StreamingUploader streamingUploader;
+    private final AwsProperties awsProperties;
+    private final ThreadPoolExecutor executor;
+
+    public S3TransferService(S3Client s3Client, S3StreamingUploader streamingUploader,
+            AwsProperties awsProperties, WorkerThreads workerThreads) {
+        this.s3Client = s3Client;
+        this.streamingUploader = streamingUploader;
+        this.awsProperties = awsProperties;
+        AwsProperties.S3 s3 = awsProperties.getS3();
+        this.executor = new ThreadPoolExecutor(s3.getTransferConcurrency(), s3.getTransferConcurrency(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(s3.getTransferQueueCapacity()),
+                workerThreads.io("s3-transfer-"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public CompletableFuture<UploadedFile> upload(MultipartFile file, String key) {
+        return submit(() -> {
+            try (InputStream in = file.getInputStream()) {
+                UploadedFile uploaded = streamingUploader.uploadSniffed(key, file.getContentType(), in, file.getSize());
+                log.info("File uploaded successfully to S3: {}", key);
+                return uploaded;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Uploads every file in parallel (within the pool limit). Completes with the
+     * uploaded files in the order given, or fails with the first upload failure.
+     */
+    public CompletableFuture<List<UploadedFile>> uploadAll(Map<String, MultipartFile> filesByKey) {
+        List<CompletableFuture<UploadedFile>> uploads = new ArrayList<>();
+        filesByKey.forEach((key, file) -> uploads.add(upload(file, key)));
+        return CompletableFuture.allOf(uploads.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> uploads.stream().map(CompletableFuture::join).toList());
+    }
+
+    /**
+     * Deletes the given keys with DeleteObjects requests of up to 1,000 keys each.
+     * Completes with the number of keys deleted.
+     */
+    public CompletableFuture<Integer> deleteKeys(Collection<String> keys) {
+        List<String> copy = List.copyOf(keys);
+        return submit(() -> {
+            int deleted = 0;
+            for (int from = 0; from < copy.size(); from += MAX_DELETE_BATCH) {
+                deleted += deleteBatch(copy.subList(from, Math.min(copy.size(), from + MAX_DELETE_BATCH)));
+            }
+            return deleted;
+        });
+    }
+
+    /**
+     * Deletes every object under {@code prefix}, following listing continuation tokens
+     * and deleting one listing page (at most 1,000 keys) per DeleteObjects request.
+     */
+    public CompletableFuture<Integer> deletePrefix(String prefix) {
+        return submit(() -> {
+            ListObjectsV2Request request = ListObjectsV2Request.builder()
+                    .bucket(bucket())
+                    .prefix(prefix)
+                    .maxKeys(MAX_DELETE_BATCH)
+                    .build();
+            int deleted = 0;
+            for (ListObjectsV2Response page : s3Client.listObjectsV2Paginator(request)) {
+                List<String> keys = page.contents().stream().map(S3Object::key).toList();
+                if (!keys.isEmpty()) {
+                    deleted += deleteBatch(keys);
+                }
+            }
+            log.info("Deleted {} objects under {}", deleted, prefix);
+            return deleted;
+        });
+    }
+
+    /**
+     * Runs any storage-bound operation on the transfer pool, under the same concurrency
+     * limit and timeout as the built-in operations.
+     */
+    public <T> CompletableFuture<T> execute(Supplier<T> operation) {
+        return submit(operation);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // -------------------- private helpers --------------------
+
+    private <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        Duration timeout = awsProperties.getS3().getOperationTimeout();
+        try {
+            return CompletableFuture.supplyAsync(operation, executor)
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // RejectedExecutionException when the queue is full
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private int deleteBatch(List<String> keys) {
+        List<ObjectIdentifier> objects = keys.stream()
+                .map(key -> ObjectIdentifier.builder().key(key).build())
+                .toList();
+        DeleteObjectsResponse response = s3Client.deleteObjects(b -> b
+                .bucket(bucket())
+                .delete(Delete.builder().objects(objects).quiet(true).build()));
+        if (response.hasErrors() && !response.errors().isEmpty()) {
+            S3Error first = response.errors().get(0);
+            throw new IllegalStateException("Failed to delete " + response.errors().size() + " of "
+                    + keys.size() + " objects, first error on " + first.key() + ": " + first.message());
+        }
+        return keys.size();
+    }
+
+    private String bucket() {
+        return awsProperties.getS3().getBucketName();
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.ecommerce.common.config;
+
+/**
+ * A file written to storage. The content type comes from the file's magic bytes when
+ * they were recognised; width and height are set for images whose header carried them.
+ */
+public record UploadedFile(String fileKey, String contentType, long fileSize, Integer width, Integer height) {
+}
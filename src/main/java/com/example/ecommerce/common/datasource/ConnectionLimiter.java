@@ -0,0 +1,140 @@
+package com.example.ecommerce.common.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps how many connections are handed out at once and makes everyone else wait in a
+ * fair queue for a bounded time. With virtual threads nothing limits concurrency before
+ * the pool any more: thousands of requests would pile into Hikari, each waiting out the
+ * full connection timeout. Here they queue cheaply on a semaphore and fail fast with a
+ * {@link SQLTransientConnectionException} once the wait is exceeded, which the API
+ * answers with 503. A permit is held from {@code getConnection()} until the connection
+ * is closed.
+ */
+public class ConnectionLimiter extends DelegatingDataSource implements MeterBinder {
+    private final Semaphore permits;
+    private final int maxConnections;
+    private final long maxWaitMillis;
+    private volatile Counter rejected;
+
+    public ConnectionLimiter(DataSource target, int maxConnections, long maxWaitMillis) {
+        super(target);
+        this.permits = new Semaphore(maxConnections, true);
+        this.maxConnections = maxConnections;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.connection.limiter.waiting", permits, Semaphore::getQueueLength)
+                .description("Threads queued for a database connection permit")
+                .register(registry);
+        Gauge.builder("db.connection.limiter.in.use", permits, p -> maxConnections - p.availablePermits())
+                .description("Connection permits currently held")
+                .register(registry);
+        rejected = Counter.builder("db.connection.limiter.rejected")
+                .description("Connection requests that gave up waiting for a permit")
+                .register(registry);
+    }
+
+    // -------------------- private helpers --------------------
+
+    private void acquire() throws SQLException {
+        try {
+            if (permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+        if (rejected != null) {
+            rejected.increment();
+        }
+        throw new SQLTransientConnectionException("All " + maxConnections + " database connections busy for "
+                + maxWaitMillis + " ms");
+    }
+
+    private Connection limited(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                new Class<?>[] {ConnectionProxy.class}, new ReleasingHandler(connection));
+    }
+
+    /**
+     * Gives the permit back on the first {@code close()}, however often it is called.
+     */
+    private final class ReleasingHandler implements InvocationHandler {
+        private final Connection target;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleasingHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getTargetConnection":
+                    return target;
+                case "close":
+                    try {
+                        target.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                    return null;
+                default:
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+            }
+        }
+    }
+}
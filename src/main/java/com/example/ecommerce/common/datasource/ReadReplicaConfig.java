@@ -0,0 +1,112 @@
+package com.example.ecommerce.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single auto-configured pool when {@code catalog.read-replicas.urls} is set.
+ * Transactions marked {@code readOnly = true} run on a replica, everything else (writes,
+ * row locks, {@code FOR UPDATE SKIP LOCKED} claims, COPY) on the primary. Routing is decided
+ * lazily on the first statement, after the transaction manager has flagged the connection
+ * read-only, which is why it goes through {@link LazyConnectionDataSourceProxy}.
+ * <p>
+ * Replicas share the {@code spring.datasource} credentials and {@code spring.datasource.hikari}
+ * pool settings unless overridden. Two databases on one local server work as well as a
+ * streaming replica; writes just never show up on the second one.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnExpression("!'${catalog.read-replicas.urls:}'.isBlank()")
+public class ReadReplicaConfig {
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    private final HikariDataSource primary;
+    private final ReplicaDataSource replicas;
+
+    public ReadReplicaConfig(DataSourceProperties properties, Environment environment,
+            @Value("${catalog.read-replicas.urls}") List<String> urls,
+            @Value("${catalog.read-replicas.username:}") String username,
+            @Value("${catalog.read-replicas.password:}") String password,
+            @Value("${catalog.read-replicas.max-lag-ms:10000}") long maxLagMillis,
+            @Value("${catalog.read-replicas.connection-timeout-ms:2000}") long connectionTimeoutMillis) {
+        Binder binder = Binder.get(environment);
+
+        this.primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(HIKARI_PREFIX, Bindable.ofInstance(primary));
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(urls.get(i).trim())
+                    .username(username.isBlank() ? properties.determineUsername() : username)
+                    .password(username.isBlank() ? properties.determinePassword() : password)
+                    .build();
+            binder.bind(HIKARI_PREFIX, Bindable.ofInstance(replica));
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setReadOnly(true);
+            // A dead replica should cost a request a short wait once, not the full pool timeout
+            replica.setConnectionTimeout(connectionTimeoutMillis);
+            pools.add(replica);
+        }
+        this.replicas = new ReplicaDataSource(pools, primary, maxLagMillis);
+        log.info("Routing read-only transactions to {} read replica(s)", pools.size());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource() {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(ReadYourWrites.tracking(primary));
+        routing.setReadOnlyDataSource(replicas);
+        // Known up front, so the proxy does not need a connection at startup to find out
+        routing.setDefaultAutoCommit(primary.isAutoCommit());
+        routing.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return routing;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${catalog.read-replicas.read-your-writes-ms:5000}") long windowMillis) {
+        return new ReadYourWritesFilter(windowMillis);
+    }
+
+    // Exposed as a binder only: as a DataSource bean it would be wrapped by the statement listeners
+    @Bean
+    public MeterBinder readReplicaMetrics() {
+        return replicas::bindTo;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.read-replicas.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        replicas.checkHealth();
+    }
+
+    @PreDestroy
+    public void close() {
+        replicas.close();
+        primary.close();
+    }
+}
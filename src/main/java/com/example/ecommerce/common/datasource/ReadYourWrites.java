@@ -0,0 +1,76 @@
+package com.example.ecommerce.common.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Read-your-writes state of the request on the current thread. A request is pinned to the
+ * primary when its client wrote within the window (see {@link ReadYourWritesFilter}) or
+ * once it has used a read-write connection itself, so a read-only transaction following a
+ * write in the same request never sees a replica that has not caught up yet.
+ */
+public final class ReadYourWrites {
+    private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    private static final class State {
+        private final boolean pinned;
+        private final Runnable onFirstWrite;
+        private boolean wrote;
+
+        private State(boolean pinned, Runnable onFirstWrite) {
+            this.pinned = pinned;
+            this.onFirstWrite = onFirstWrite;
+        }
+    }
+
+    static void begin(boolean pinned, Runnable onFirstWrite) {
+        CURRENT.set(new State(pinned, onFirstWrite));
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Whether reads on this thread must go to the primary; always false outside a request.
+     */
+    public static boolean isPinned() {
+        State state = CURRENT.get();
+        return state != null && (state.pinned || state.wrote);
+    }
+
+    /**
+     * Wraps the primary so that handing out a read-write connection pins the request.
+     */
+    static DataSource tracking(DataSource primary) {
+        return new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                markWrite();
+                return super.getConnection();
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                markWrite();
+                return super.getConnection(username, password);
+            }
+        };
+    }
+
+    // -------------------- private helpers --------------------
+
+    private static void markWrite() {
+        State state = CURRENT.get();
+        if (state != null && !state.wrote) {
+            state.wrote = true;
+            state.onFirstWrite.run();
+        }
+    }
+}
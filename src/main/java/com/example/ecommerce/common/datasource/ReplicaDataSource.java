@@ -0,0 +1,153 @@
+package com.example.ecommerce.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connections for read-only transactions: round-robin over the healthy replicas, falling
+ * back to the primary when none is healthy or the request is pinned by
+ * {@link ReadYourWrites}. A replica is taken out on the first connection that fails to
+ * open or validate and put back by the periodic {@link #checkHealth()}, which also drops
+ * replicas lagging more than the allowed replay delay. A replica whose pool is merely
+ * exhausted stays in rotation; the request moves on to the next one.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements MeterBinder {
+    // Zero on a plain database (two local databases) and on a standby that is streaming and has
+    // replayed all it received. A standby without a streaming WAL receiver cannot tell how far
+    // behind it is, so the age of its last replayed transaction counts as lag.
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+            + "AND EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, "
+            + "'Infinity'::float8) END";
+
+    private final List<Replica> replicas;
+    private final DataSource primary;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private static final class Replica {
+        private final HikariDataSource pool;
+        private volatile boolean healthy = true;
+        private volatile double lagMillis;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+    }
+
+    public ReplicaDataSource(List<HikariDataSource> replicas, DataSource primary, long maxLagMillis) {
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.primary = primary;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!ReadYourWrites.isPinned()) {
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    return replica.pool.getConnection();
+                } catch (SQLException e) {
+                    if (!isPoolExhausted(e)) {
+                        markDown(replica, e.getMessage());
+                    }
+                } catch (RuntimeException e) {
+                    markDown(replica, e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Replica pools only know the configured credentials
+        return primary.getConnection(username, password);
+    }
+
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection();
+                    Statement statement = connection.createStatement();
+                    ResultSet lag = statement.executeQuery(LAG_QUERY)) {
+                lag.next();
+                replica.lagMillis = lag.getDouble(1);
+                if (replica.lagMillis > maxLagMillis) {
+                    markDown(replica, Double.isInfinite(replica.lagMillis) ? "not receiving WAL"
+                            : "replaying " + Math.round(replica.lagMillis) + " ms behind");
+                } else if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Read replica {} is back in rotation", replica.pool.getPoolName());
+                }
+            } catch (SQLException e) {
+                if (!isPoolExhausted(e)) {
+                    markDown(replica, e.getMessage());
+                }
+            } catch (RuntimeException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("db.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("Whether the read replica is in rotation")
+                    .tag("replica", replica.pool.getPoolName())
+                    .register(registry);
+            Gauge.builder("db.replica.lag", replica, r -> r.lagMillis)
+                    .description("Replay lag of the read replica at the last health check")
+                    .baseUnit("milliseconds")
+                    .tag("replica", replica.pool.getPoolName())
+                    .register(registry);
+            try {
+                replica.pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            } catch (IllegalStateException e) {
+                log.debug("Pool metrics already bound for {}", replica.pool.getPoolName());
+            }
+        }
+    }
+
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    // -------------------- private helpers --------------------
+
+    /**
+     * Hikari's connection timeout. It carries the last connect failure as its cause when
+     * the pool could not reach the database, and none when every connection was busy.
+     */
+    private static boolean isPoolExhausted(SQLException e) {
+        return e instanceof SQLTransientConnectionException && e.getCause() == null;
+    }
+
+    private void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Read replica {} taken out of rotation: {}", replica.pool.getPoolName(), reason);
+        }
+    }
+}
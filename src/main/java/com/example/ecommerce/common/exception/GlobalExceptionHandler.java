@@ -2,9 +2,12 @@ package com.example.ecommerce.common.exception;
 
 import com.example.ecommerce.catalog.dto.common.ApiResponse;
 import com.example.ecommerce.catalog.dto.common.ApiResponseDto;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -58,6 +61,19 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
 
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ApiResponse<Map<String, String>>> handleResourceNotFound(ResourceNotFoundException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+
+        ApiResponse<Map<String, String>> response = ApiResponseDto.error(
+                HttpStatus.NOT_FOUND.value(),
+                "Resource not found",
+                error);
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ApiResponse<Map<String, String>>> handleIllegalArgumentException(
             IllegalArgumentException ex) {
@@ -71,4 +87,34 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
+
+    @ExceptionHandler(QueryBudgetExceededException.class)
+    public ResponseEntity<ApiResponse<Map<String, String>>> handleQueryBudgetExceeded(
+            QueryBudgetExceededException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+
+        ApiResponse<Map<String, String>> response = ApiResponseDto.error(
+                HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                "SQL budget exceeded",
+                error);
+
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    }
+
+    // No connection within the wait: the database is saturated, so ask the client to back off
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ApiResponse<Map<String, String>>> handleDatabaseUnavailable(RuntimeException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", ex.getMessage());
+
+        ApiResponse<Map<String, String>> response = ApiResponseDto.error(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Database unavailable",
+                error);
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
 }
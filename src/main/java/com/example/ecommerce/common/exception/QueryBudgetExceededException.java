@@ -0,0 +1,11 @@
+package com.example.ecommerce.common.exception;
+
+/**
+ * Thrown in strict mode before the statement that would take a request over its SQL
+ * budget, so an N+1 regression fails the request instead of slowing it down.
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.ecommerce.common.exception;
+
+/**
+ * Stackless not-found exception for hot lookup paths. The shared instances are
+ * preallocated so rejecting a request for a nonexistent id or slug costs neither a
+ * stack walk nor an allocation.
+ */
+public class ResourceNotFoundException extends RuntimeException {
+    public static final ResourceNotFoundException PRODUCT = new ResourceNotFoundException("Product not found");
+    public static final ResourceNotFoundException BRAND = new ResourceNotFoundException("Brand not found");
+    public static final ResourceNotFoundException CATEGORY = new ResourceNotFoundException("Category not found");
+
+    public ResourceNotFoundException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.ecommerce.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Instrumentation beyond what actuator binds on its own (HTTP server timers, Hikari pool
+ * and Hibernate statistics): per-statement JDBC timing, SQL per request with its
+ * {@link QueryBudget}, the {@link SlowQueryLog}, and S3 client calls. The listeners are
+ * meter binders, so they start recording once the registry is up.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+    private final MeterRegistry meterRegistry;
+    private final int defaultMaxStatements;
+    private final int defaultMaxRepeats;
+    private final boolean strictQueryBudget;
+
+    public MetricsConfig(MeterRegistry meterRegistry,
+            @Value("${catalog.query-budget.max-statements:50}") int defaultMaxStatements,
+            @Value("${catalog.query-budget.max-repeats:10}") int defaultMaxRepeats,
+            @Value("${catalog.query-budget.strict:false}") boolean strictQueryBudget) {
+        this.meterRegistry = meterRegistry;
+        this.defaultMaxStatements = defaultMaxStatements;
+        this.defaultMaxRepeats = defaultMaxRepeats;
+        this.strictQueryBudget = strictQueryBudget;
+    }
+
+    @Bean
+    public static SqlMetricsListener sqlMetricsListener() {
+        return new SqlMetricsListener();
+    }
+
+    @Bean
+    public static SlowQueryLog slowQueryLog(
+            @Value("${catalog.slow-query.threshold-ms:200}") long thresholdMillis,
+            @Value("${catalog.slow-query.capacity:200}") int capacity,
+            @Value("${catalog.slow-query.explain-sample-rate:0.1}") double explainSampleRate,
+            @Value("${catalog.slow-query.explain-timeout-ms:10000}") long explainTimeoutMillis,
+            ObjectProvider<DataSource> dataSource) {
+        return new SlowQueryLog(thresholdMillis, capacity, explainSampleRate, explainTimeoutMillis, dataSource);
+    }
+
+    @Bean
+    public static S3MetricPublisher s3MetricPublisher() {
+        return new S3MetricPublisher();
+    }
+
+    /**
+     * Wraps the pool in a JDBC proxy so every statement passes through the listeners; the
+     * proxy unwraps to the pool, so Hikari metrics and driver-specific APIs keep working.
+     */
+    @Bean
+    public static BeanPostProcessor sqlMetricsDataSourcePostProcessor(SqlMetricsListener sqlMetricsListener,
+            SlowQueryLog slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(sqlMetricsListener)
+                            .listener(slowQueryLog)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestSqlMetricsInterceptor(meterRegistry, defaultMaxStatements,
+                defaultMaxRepeats, strictQueryBudget));
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.ecommerce.common.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * SQL budget of an endpoint, on a controller method or class; unset values fall back to
+ * {@code catalog.query-budget.*}. A request going over budget is logged and counted, or
+ * fails outright in strict mode (meant for tests and local runs).
+ */
+@Documented
+@Target({ ElementType.METHOD, ElementType.TYPE })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    /**
+     * Most statements the request may execute; a JDBC batch counts once.
+     */
+    int maxStatements() default -1;
+
+    /**
+     * Most times one statement shape may run with different parameters, the signature of
+     * an N+1 lazy load.
+     */
+    int maxRepeats() default -1;
+}
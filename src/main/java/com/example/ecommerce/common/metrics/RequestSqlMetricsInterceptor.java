@@ -0,0 +1,125 @@
+package com.example.ecommerce.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how many SQL statements each endpoint executes and how long they took, next to
+ * the {@code http.server.requests} timers and with the same {@code method}/{@code uri}
+ * tags, so a slow endpoint can be told apart from a chatty one. Requests going over their
+ * {@link QueryBudget} are logged with the most repeated statement and counted in
+ * {@code http.server.requests.sql.budget.exceeded}, which is what to alert on.
+ */
+@Slf4j
+public class RequestSqlMetricsInterceptor implements AsyncHandlerInterceptor {
+    private final MeterRegistry meterRegistry;
+    private final Budget defaultBudget;
+    private final boolean strict;
+    private final Map<Method, Budget> budgets = new ConcurrentHashMap<>();
+
+    private record Budget(int maxStatements, int maxRepeats) {
+    }
+
+    public RequestSqlMetricsInterceptor(MeterRegistry meterRegistry, int defaultMaxStatements,
+            int defaultMaxRepeats, boolean strict) {
+        this.meterRegistry = meterRegistry;
+        this.defaultBudget = new Budget(defaultMaxStatements, defaultMaxRepeats);
+        this.strict = strict;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Budget budget = handler instanceof HandlerMethod method
+                ? budgets.computeIfAbsent(method.getMethod(), key -> resolve(method))
+                : defaultBudget;
+        RequestSqlStats.begin(request.getMethod() + " " + uriOf(request), budget.maxStatements(),
+                budget.maxRepeats(), strict);
+        return true;
+    }
+
+    /**
+     * An async handler hands the request off without {@link #afterCompletion}; the work it
+     * did on this thread is recorded now and the stats cleared before the thread is reused.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        finish(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        finish(request);
+    }
+
+    // -------------------- private helpers --------------------
+
+    private Budget resolve(HandlerMethod method) {
+        QueryBudget annotation = AnnotatedElementUtils.findMergedAnnotation(method.getMethod(), QueryBudget.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), QueryBudget.class);
+        }
+        if (annotation == null) {
+            return defaultBudget;
+        }
+        return new Budget(
+                annotation.maxStatements() >= 0 ? annotation.maxStatements() : defaultBudget.maxStatements(),
+                annotation.maxRepeats() >= 0 ? annotation.maxRepeats() : defaultBudget.maxRepeats());
+    }
+
+    private static String uriOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    private void finish(HttpServletRequest request) {
+        RequestSqlStats stats = RequestSqlStats.end();
+        if (stats == null) {
+            return;
+        }
+        String uri = uriOf(request);
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements executed per request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.statements());
+        Timer.builder("http.server.requests.sql.time")
+                .description("Time spent executing SQL per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(stats.nanos(), TimeUnit.NANOSECONDS);
+
+        if (stats.violation() != null) {
+            Counter.builder("http.server.requests.sql.budget.exceeded")
+                    .description("Requests that went over their SQL budget")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("SQL budget exceeded on {} {}: {} ({} statements in total, most repeated ran {} times: {})",
+                    request.getMethod(), uri, stats.violation(), stats.statements(), stats.mostRepeatedCount(),
+                    stats.mostRepeatedShape());
+        }
+    }
+}
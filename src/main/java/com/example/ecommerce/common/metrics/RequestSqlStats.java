@@ -0,0 +1,140 @@
+package com.example.ecommerce.common.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements executed on the current thread since {@link #begin}, i.e. during the
+ * web request being handled, checked against the endpoint's {@link QueryBudget}.
+ * Statements run outside a request (schedulers, startup) are not attributed to anything.
+ */
+public final class RequestSqlStats {
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    // Bounds the memory of a request issuing many distinct statements; later shapes are not tracked
+    private static final int MAX_TRACKED_SHAPES = 256;
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final String endpoint;
+    private final int maxStatements;
+    private final int maxRepeats;
+    private final boolean strict;
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    private int statements;
+    private long nanos;
+    private String mostRepeatedShape;
+    private int mostRepeatedCount;
+    private String violation;
+
+    private RequestSqlStats(String endpoint, int maxStatements, int maxRepeats, boolean strict) {
+        this.endpoint = endpoint;
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+        this.strict = strict;
+    }
+
+    public static RequestSqlStats begin(String endpoint, int maxStatements, int maxRepeats, boolean strict) {
+        RequestSqlStats stats = new RequestSqlStats(endpoint, maxStatements, maxRepeats, strict);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * The stats of the request on this thread, or {@code null} outside a request.
+     */
+    public static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    public static RequestSqlStats end() {
+        RequestSqlStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    /**
+     * Method and route of the request, e.g. {@code GET /products/{id}}.
+     */
+    public String endpoint() {
+        return endpoint;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    public boolean strict() {
+        return strict;
+    }
+
+    /**
+     * The first budget violation of the request, or {@code null} if it stayed within budget.
+     */
+    public String violation() {
+        return violation;
+    }
+
+    public String mostRepeatedShape() {
+        return mostRepeatedShape;
+    }
+
+    public int mostRepeatedCount() {
+        return mostRepeatedCount;
+    }
+
+    /**
+     * Counts a statement about to run. Returns the violation if this statement is the one
+     * that takes the request over budget, {@code null} otherwise.
+     */
+    String onStatement(String sql) {
+        statements++;
+        String shape = shapeOf(sql);
+        Integer repeats = shapes.size() < MAX_TRACKED_SHAPES || shapes.containsKey(shape)
+                ? shapes.merge(shape, 1, Integer::sum)
+                : null;
+        if (repeats != null && repeats > mostRepeatedCount) {
+            mostRepeatedCount = repeats;
+            mostRepeatedShape = shape;
+        }
+
+        if (violation != null) {
+            return null;
+        }
+        if (maxStatements >= 0 && statements > maxStatements) {
+            violation = statements + " statements exceed the budget of " + maxStatements;
+        } else if (maxRepeats >= 0 && repeats != null && repeats > maxRepeats) {
+            violation = "statement repeated " + repeats + " times (budget " + maxRepeats
+                    + "), likely an N+1 lazy load: " + abbreviate(shape);
+        }
+        return violation;
+    }
+
+    void recordTime(long elapsedNanos) {
+        nanos += elapsedNanos;
+    }
+
+    // -------------------- private helpers --------------------
+
+    /**
+     * Statements that differ only in literals, parameters or IN-list length share a shape.
+     */
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    private static String abbreviate(String shape) {
+        return shape.length() <= 200 ? shape : shape.substring(0, 200) + "...";
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.ecommerce.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Publishes the SDK's per-call metrics of the S3 client as {@code s3.client.requests}
+ * timers by operation and outcome, plus a retry counter. The duration covers all attempts
+ * of a call, so throttling and retries show up in the latency rather than being hidden.
+ */
+public class S3MetricPublisher implements MetricPublisher, MeterBinder {
+    private volatile MeterRegistry registry;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void publish(MetricCollection metrics) {
+        MeterRegistry target = registry;
+        if (target == null) {
+            return;
+        }
+        String operation = first(metrics.metricValues(CoreMetric.OPERATION_NAME), "unknown");
+        Duration duration = first(metrics.metricValues(CoreMetric.API_CALL_DURATION), null);
+        boolean success = first(metrics.metricValues(CoreMetric.API_CALL_SUCCESSFUL), false);
+        int retries = first(metrics.metricValues(CoreMetric.RETRY_COUNT), 0);
+
+        if (duration != null) {
+            Timer.builder("s3.client.requests")
+                    .description("S3 API calls, including retries")
+                    .tag("operation", operation)
+                    .tag("outcome", success ? "success" : "failure")
+                    .publishPercentileHistogram()
+                    .register(target)
+                    .record(duration);
+        }
+        if (retries > 0) {
+            Counter.builder("s3.client.retries")
+                    .tag("operation", operation)
+                    .register(target)
+                    .increment(retries);
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+
+    // -------------------- private helpers --------------------
+
+    private static <T> T first(List<T> values, T fallback) {
+        return values.isEmpty() ? fallback : values.get(0);
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.ecommerce.common.metrics;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the most recent statements slower than the threshold in a ring buffer, with the
+ * shapes of their bound parameters, the application method that issued them and the
+ * request they ran for. A sample of slow SELECTs is re-run under
+ * {@code EXPLAIN (ANALYZE, BUFFERS)} on a separate connection in a rolled-back read-only
+ * transaction, so the plan shows which sort or filter falls back to a sequential scan.
+ * Parameter values are only used for that EXPLAIN and never stored.
+ */
+@Slf4j
+public class SlowQueryLog implements QueryExecutionListener {
+    private static final String APP_PACKAGE = "com.example.ecommerce.";
+    private static final String SERVICE_PACKAGE = "com.example.ecommerce.catalog.app.";
+    private static final String OWN_PACKAGE = SlowQueryLog.class.getPackageName() + ".";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final long thresholdMillis;
+    private final int capacity;
+    private final double explainSampleRate;
+    private final long explainTimeoutMillis;
+    private final ObjectProvider<DataSource> dataSource;
+    private final Deque<SlowQuery> entries = new ArrayDeque<>();
+    // One EXPLAIN at a time and one waiting; anything beyond is logged without a plan
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(1), runnable -> {
+                Thread thread = new Thread(runnable, "slow-query-explain");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public record SlowQuery(Instant at, long elapsedMillis, String sql, List<String> parameterShapes,
+            int batchSize, String caller, String endpoint, String plan) {
+    }
+
+    public SlowQueryLog(long thresholdMillis, int capacity, double explainSampleRate, long explainTimeoutMillis,
+            ObjectProvider<DataSource> dataSource) {
+        this.thresholdMillis = thresholdMillis;
+        this.capacity = capacity;
+        this.explainSampleRate = explainSampleRate;
+        this.explainTimeoutMillis = explainTimeoutMillis;
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (thresholdMillis < 0 || execInfo.getElapsedTime() < thresholdMillis || queryInfoList.isEmpty()) {
+            return;
+        }
+        QueryInfo query = queryInfoList.get(0);
+        List<ParameterSetOperation> parameters = query.getParametersList().isEmpty()
+                ? List.of()
+                : sortedByIndex(query.getParametersList().get(0));
+        RequestSqlStats request = RequestSqlStats.current();
+        SlowQuery entry = new SlowQuery(Instant.now(), execInfo.getElapsedTime(), query.getQuery(),
+                parameters.stream().map(SlowQueryLog::shapeOf).toList(),
+                Math.max(1, query.getParametersList().size()),
+                caller(), request != null ? request.endpoint() : null, null);
+        log.warn("Slow query ({} ms) from {}: {}", entry.elapsedMillis(), entry.caller(), entry.sql());
+
+        if (isExplainable(entry.sql()) && ThreadLocalRandom.current().nextDouble() < explainSampleRate) {
+            try {
+                explainExecutor.execute(() -> add(withPlan(entry, parameters)));
+                return;
+            } catch (RejectedExecutionException e) {
+                log.debug("EXPLAIN queue full, keeping slow query without a plan");
+            }
+        }
+        add(entry);
+    }
+
+    /**
+     * Recorded slow queries, newest first.
+     */
+    public List<SlowQuery> entries() {
+        synchronized (entries) {
+            return new ArrayList<>(entries);
+        }
+    }
+
+    /**
+     * Recorded slow queries, slowest first.
+     */
+    public List<SlowQuery> slowest() {
+        List<SlowQuery> sorted = entries();
+        sorted.sort(Comparator.comparingLong(SlowQuery::elapsedMillis).reversed());
+        return sorted;
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        explainExecutor.shutdownNow();
+    }
+
+    // -------------------- private helpers --------------------
+
+    private void add(SlowQuery entry) {
+        synchronized (entries) {
+            if (entries.size() >= capacity) {
+                entries.removeLast();
+            }
+            entries.addFirst(entry);
+        }
+    }
+
+    private SlowQuery withPlan(SlowQuery entry, List<ParameterSetOperation> parameters) {
+        return new SlowQuery(entry.at(), entry.elapsedMillis(), entry.sql(), entry.parameterShapes(),
+                entry.batchSize(), entry.caller(), entry.endpoint(), explain(entry.sql(), parameters));
+    }
+
+    private String explain(String sql, List<ParameterSetOperation> parameters) {
+        DataSource target = dataSource.getObject();
+        // Bypass the statement listeners: the EXPLAIN is at least as slow as the query itself
+        if (target instanceof ProxyDataSource proxy) {
+            target = proxy.getDataSource();
+        }
+        try (Connection connection = target.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setReadOnly(true);
+            try (Statement timeout = connection.createStatement()) {
+                timeout.execute("SET LOCAL statement_timeout = " + explainTimeoutMillis);
+            }
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+                for (ParameterSetOperation parameter : parameters) {
+                    parameter.getMethod().invoke(statement, parameter.getArgs());
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            } finally {
+                connection.rollback();
+            }
+        } catch (Exception e) {
+            log.debug("EXPLAIN of slow query failed", e);
+            return "EXPLAIN failed: " + e;
+        }
+    }
+
+    /**
+     * Only plain SELECTs: ANALYZE executes the statement, which must neither write nor lock.
+     */
+    private static boolean isExplainable(String sql) {
+        if (QueryUtils.getQueryType(sql) != QueryType.SELECT) {
+            return false;
+        }
+        String normalized = sql.toLowerCase(Locale.ROOT);
+        return !normalized.contains(" for update") && !normalized.contains(" for share")
+                && !normalized.contains(" for no key update");
+    }
+
+    private static List<ParameterSetOperation> sortedByIndex(Collection<ParameterSetOperation> parameters) {
+        return parameters.stream()
+                .filter(parameter -> !ParameterSetOperation.isRegisterOutParameterOperation(parameter)
+                        && parameter.getArgs()[0] instanceof Number)
+                .sorted(Comparator.comparingInt(parameter -> ((Number) parameter.getArgs()[0]).intValue()))
+                .toList();
+    }
+
+    /**
+     * Type and size of a bound value, plus the wildcard placement of LIKE patterns, which
+     * decides whether an index can be used at all.
+     */
+    private static String shapeOf(ParameterSetOperation parameter) {
+        Object[] args = parameter.getArgs();
+        Object value = args.length > 1 ? args[1] : null;
+        if (ParameterSetOperation.isSetNullParameterOperation(parameter) || value == null) {
+            return "null";
+        }
+        if (value instanceof String text) {
+            if (text.indexOf('%') >= 0 || text.indexOf('_') >= 0) {
+                return "pattern(" + (text.startsWith("%") ? "%" : "") + "..." + (text.endsWith("%") ? "%" : "")
+                        + ")";
+            }
+            return "String(" + text.length() + ")";
+        }
+        if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[" + java.lang.reflect.Array.getLength(value)
+                    + "]";
+        }
+        return value.getClass().getSimpleName();
+    }
+
+    /**
+     * The innermost application frame, preferring a service method over the repository
+     * or controller around it.
+     */
+    private static String caller() {
+        return STACK_WALKER.walk(frames -> {
+            List<StackWalker.StackFrame> application = frames
+                    .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE)
+                            && !frame.getClassName().startsWith(OWN_PACKAGE))
+                    .toList();
+            Optional<StackWalker.StackFrame> service = application.stream()
+                    .filter(frame -> frame.getClassName().startsWith(SERVICE_PACKAGE))
+                    .findFirst();
+            return service.or(() -> application.stream().findFirst())
+                    .map(frame -> simpleName(frame.getClassName()) + "." + frame.getMethodName())
+                    .orElse("unknown");
+        });
+    }
+
+    private static String simpleName(String className) {
+        String simple = className.substring(className.lastIndexOf('.') + 1);
+        // CGLIB and lambda frames carry suffixes after '$'
+        int suffix = simple.indexOf('$');
+        return suffix > 0 ? simple.substring(0, suffix) : simple;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.ecommerce.common.metrics;
+
+import com.example.ecommerce.common.exception.QueryBudgetExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every JDBC statement execution (a batch counts once, as one round trip) into
+ * {@code db.sql.statements} by statement type, and attributes it to the current request's
+ * {@link RequestSqlStats}, which also checks it against the request's budget. Statements
+ * executed before the registry is bound, such as the Flyway migrations, are not timed.
+ */
+public class SqlMetricsListener implements QueryExecutionListener, MeterBinder {
+    private static final String START_NANOS = SqlMetricsListener.class.getName() + ".start";
+
+    private volatile Map<QueryType, Timer> timers;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Map<QueryType, Timer> created = new EnumMap<>(QueryType.class);
+        for (QueryType type : QueryType.values()) {
+            created.put(type, Timer.builder("db.sql.statements")
+                    .description("JDBC statement executions")
+                    .tag("type", type.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        timers = created;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null && !queryInfoList.isEmpty()) {
+            String violation = stats.onStatement(queryInfoList.get(0).getQuery());
+            if (violation != null && stats.strict()) {
+                throw new QueryBudgetExceededException("SQL budget exceeded: " + violation);
+            }
+        }
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        if (start == null) {
+            return;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null) {
+            stats.recordTime(elapsed);
+        }
+        Map<QueryType, Timer> byType = timers;
+        if (byType != null && !queryInfoList.isEmpty()) {
+            byType.get(QueryUtils.getQueryType(queryInfoList.get(0).getQuery()))
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.ecommerce.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over UUIDs and strings. {@link #mightContain} never returns
+ * false for a key that was added; it returns true for absent keys with roughly the
+ * false-positive probability the filter was sized for. Keys cannot be removed, so
+ * owners rebuild the filter periodically.
+ */
+public class BloomFilter {
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void put(UUID key) {
+        put(mix(key.getMostSignificantBits() ^ SEED), mix(key.getLeastSignificantBits() + SEED));
+    }
+
+    public void put(String key) {
+        long[] hash = hash(key);
+        put(hash[0], hash[1]);
+    }
+
+    public boolean mightContain(UUID key) {
+        return mightContain(mix(key.getMostSignificantBits() ^ SEED), mix(key.getLeastSignificantBits() + SEED));
+    }
+
+    public boolean mightContain(String key) {
+        long[] hash = hash(key);
+        return mightContain(hash[0], hash[1]);
+    }
+
+    private void put(long h1, long h2) {
+        long combined = h1;
+        long step = h2 | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitCount;
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+            combined += step;
+        }
+    }
+
+    private boolean mightContain(long h1, long h2) {
+        long combined = h1;
+        long step = h2 | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitCount;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+            combined += step;
+        }
+        return true;
+    }
+
+    private static long[] hash(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        long h1 = SEED;
+        long h2 = ~SEED;
+        for (byte b : bytes) {
+            h1 = (h1 ^ b) * 0x100000001B3L;
+            h2 = (h2 + b) * 0xC2B2AE3D27D4EB4FL;
+        }
+        return new long[] { mix(h1), mix(h2 ^ bytes.length) };
+    }
+
+    // MurmurHash3 64-bit finalizer
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
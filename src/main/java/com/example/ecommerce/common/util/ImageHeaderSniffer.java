@@ -0,0 +1,138 @@
+package com.example.ecommerce.common.util;
+
+import java.util.Optional;
+
+/**
+ * Identifies PNG, JPEG, GIF and WebP images from their magic bytes and reads their
+ * dimensions from the header (PNG IHDR, JPEG SOFn, GIF logical screen, WebP VP8/VP8L/
+ * VP8X chunks) without decoding any pixel data. Works on a prefix of the file;
+ * {@link #PREFIX_BYTES} is enough for everything but JPEGs with unusually large
+ * EXIF or ICC segments, for which the dimensions are reported as unknown.
+ */
+public final class ImageHeaderSniffer {
+    public static final int PREFIX_BYTES = 64 * 1024;
+
+    private ImageHeaderSniffer() {
+    }
+
+    /**
+     * Format and size read from an image header. Width and height are null when the
+     * format was recognised but the prefix ended before the dimensions.
+     */
+    public record ImageHeader(String mimeType, String extension, Integer width, Integer height) {
+        public boolean hasDimensions() {
+            return width != null && height != null;
+        }
+    }
+
+    public static Optional<ImageHeader> sniff(byte[] prefix, int length) {
+        if (startsWith(prefix, length, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return Optional.of(png(prefix, length));
+        }
+        if (startsWith(prefix, length, 0xFF, 0xD8, 0xFF)) {
+            return Optional.of(jpeg(prefix, length));
+        }
+        if (startsWith(prefix, length, 'G', 'I', 'F', '8')) {
+            return Optional.of(length >= 10
+                    ? new ImageHeader("image/gif", ".gif", u16le(prefix, 6), u16le(prefix, 8))
+                    : new ImageHeader("image/gif", ".gif", null, null));
+        }
+        if (startsWith(prefix, length, 'R', 'I', 'F', 'F') && length >= 16
+                && prefix[8] == 'W' && prefix[9] == 'E' && prefix[10] == 'B' && prefix[11] == 'P') {
+            return Optional.of(webp(prefix, length));
+        }
+        return Optional.empty();
+    }
+
+    // -------------------- private helpers --------------------
+
+    private static ImageHeader png(byte[] b, int length) {
+        // Signature (8), IHDR length (4), "IHDR" (4), width (4), height (4)
+        if (length < 24 || b[12] != 'I' || b[13] != 'H' || b[14] != 'D' || b[15] != 'R') {
+            return new ImageHeader("image/png", ".png", null, null);
+        }
+        return new ImageHeader("image/png", ".png", u32be(b, 16), u32be(b, 20));
+    }
+
+    private static ImageHeader jpeg(byte[] b, int length) {
+        int pos = 2;
+        while (pos + 4 <= length) {
+            if ((b[pos] & 0xFF) != 0xFF) {
+                break;
+            }
+            int marker = b[pos + 1] & 0xFF;
+            if (marker == 0xFF) {
+                // Fill byte before a marker
+                pos++;
+                continue;
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD8)) {
+                pos += 2;
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                // End of image or start of scan before any frame header
+                break;
+            }
+            int segmentLength = u16be(b, pos + 2);
+            boolean frameHeader = marker >= 0xC0 && marker <= 0xCF
+                    && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+            if (frameHeader && pos + 9 <= length) {
+                // Length (2), precision (1), height (2), width (2)
+                return new ImageHeader("image/jpeg", ".jpg", u16be(b, pos + 7), u16be(b, pos + 5));
+            }
+            pos += 2 + segmentLength;
+        }
+        return new ImageHeader("image/jpeg", ".jpg", null, null);
+    }
+
+    private static ImageHeader webp(byte[] b, int length) {
+        if (length >= 30 && b[12] == 'V' && b[13] == 'P' && b[14] == '8' && b[15] == ' ') {
+            // Lossy: frame tag (3), start code 9D 01 2A, 14-bit width and height
+            if ((b[23] & 0xFF) == 0x9D && (b[24] & 0xFF) == 0x01 && (b[25] & 0xFF) == 0x2A) {
+                return new ImageHeader("image/webp", ".webp", u16le(b, 26) & 0x3FFF, u16le(b, 28) & 0x3FFF);
+            }
+        } else if (length >= 25 && b[12] == 'V' && b[13] == 'P' && b[14] == '8' && b[15] == 'L') {
+            // Lossless: signature 0x2F, then 14-bit width-1 and height-1
+            if ((b[20] & 0xFF) == 0x2F) {
+                int b1 = b[21] & 0xFF, b2 = b[22] & 0xFF, b3 = b[23] & 0xFF, b4 = b[24] & 0xFF;
+                int width = 1 + (b1 | (b2 & 0x3F) << 8);
+                int height = 1 + ((b2 >> 6) | b3 << 2 | (b4 & 0x0F) << 10);
+                return new ImageHeader("image/webp", ".webp", width, height);
+            }
+        } else if (length >= 30 && b[12] == 'V' && b[13] == 'P' && b[14] == '8' && b[15] == 'X') {
+            // Extended: flags (4), then 24-bit canvas width-1 and height-1
+            return new ImageHeader("image/webp", ".webp", 1 + u24le(b, 24), 1 + u24le(b, 27));
+        }
+        return new ImageHeader("image/webp", ".webp", null, null);
+    }
+
+    private static boolean startsWith(byte[] b, int length, int... signature) {
+        if (length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((b[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int u16be(byte[] b, int offset) {
+        return (b[offset] & 0xFF) << 8 | (b[offset + 1] & 0xFF);
+    }
+
+    private static int u16le(byte[] b, int offset) {
+        return (b[offset] & 0xFF) | (b[offset + 1] & 0xFF) << 8;
+    }
+
+    private static int u24le(byte[] b, int offset) {
+        return (b[offset] & 0xFF) | (b[offset + 1] & 0xFF) << 8 | (b[offset + 2] & 0xFF) << 16;
+    }
+
+    private static int u32be(byte[] b, int offset) {
+        return (b[offset] & 0xFF) << 24 | (b[offset + 1] & 0xFF) << 16 | (b[offset + 2] & 0xFF) << 8
+                | (b[offset + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.ecommerce.common.util;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Decodes and downscales images with the JDK's ImageIO. Sources are subsampled while
+ * decoding, so a large original is never materialised at full resolution when only
+ * small variants are needed.
+ */
+public final class ImageResizer {
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private ImageResizer() {
+    }
+
+    public record Encoded(byte[] bytes, String mimeType, String extension, int width, int height) {
+    }
+
+    /**
+     * Decodes {@code in}, subsampling so the result is no smaller than twice
+     * {@code largestTargetWidth}. Rejects images above {@code maxPixels} before
+     * decoding any pixel data.
+     */
+    public static BufferedImage decode(InputStream in, int largestTargetWidth, long maxPixels) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("Image of " + width + "x" + height + " exceeds " + maxPixels + " pixels");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, width / Math.max(1, 2 * largestTargetWidth));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales {@code source} to {@code targetWidth}, keeping its aspect ratio, and
+     * encodes it as JPEG, or as PNG when it has an alpha channel.
+     */
+    public static Encoded resize(BufferedImage source, int targetWidth) throws IOException {
+        BufferedImage scaled = source;
+        boolean alpha = source.getColorModel().hasAlpha();
+        // Halving steps keep bilinear filtering from aliasing on large reductions
+        while (scaled.getWidth() / 2 >= targetWidth) {
+            scaled = scale(scaled, scaled.getWidth() / 2, alpha);
+        }
+        if (scaled.getWidth() != targetWidth) {
+            scaled = scale(scaled, targetWidth, alpha);
+        } else if (scaled == source) {
+            scaled = scale(source, targetWidth, alpha);
+        }
+        return alpha
+                ? new Encoded(encodePng(scaled), "image/png", ".png", scaled.getWidth(), scaled.getHeight())
+                : new Encoded(encodeJpeg(scaled), "image/jpeg", ".jpg", scaled.getWidth(), scaled.getHeight());
+    }
+
+    // -------------------- private helpers --------------------
+
+    private static BufferedImage scale(BufferedImage source, int width, boolean alpha) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage target = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,4 @@
+-- V10__upload_session_image.sql
+
+-- The image a completed session produced, so a retried completion returns it again
+ALTER TABLE upload_sessions ADD COLUMN image_id UUID;
@@ -0,0 +1,15 @@
+-- V2__product_counts.sql
+
+-- Denormalized product counters per category (direct + subtree rollup) and per brand.
+-- Maintained incrementally by ProductCountService and periodically reconciled.
+CREATE TABLE product_counts (
+    owner_id UUID PRIMARY KEY,
+    owner_type VARCHAR(20) NOT NULL,
+    product_count BIGINT NOT NULL DEFAULT 0,
+    active_product_count BIGINT NOT NULL DEFAULT 0,
+    subtree_product_count BIGINT NOT NULL DEFAULT 0,
+    subtree_active_product_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_product_category ON products(category_id);
@@ -0,0 +1,22 @@
+-- V3__product_slugs_and_redirects.sql
+
+ALTER TABLE products ADD COLUMN slug VARCHAR(255);
+
+UPDATE products
+SET slug = trim(BOTH '-' FROM lower(regexp_replace(product_name, '[^A-Za-z0-9]+', '-', 'g')))
+           || '-' || left(replace(id::text, '-', ''), 8);
+
+ALTER TABLE products ALTER COLUMN slug SET NOT NULL;
+ALTER TABLE products ADD CONSTRAINT products_slug_key UNIQUE (slug);
+
+-- Old slug -> entity redirects kept when a category or brand is renamed
+CREATE TABLE slug_redirects (
+    id UUID PRIMARY KEY,
+    target_type VARCHAR(20) NOT NULL,
+    old_slug VARCHAR(255) NOT NULL,
+    target_id UUID NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uq_slug_redirect UNIQUE (target_type, old_slug)
+);
+
+CREATE INDEX idx_slug_redirect_target ON slug_redirects(target_id);
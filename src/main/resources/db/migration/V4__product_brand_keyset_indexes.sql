@@ -0,0 +1,5 @@
+-- V4__product_brand_keyset_indexes.sql
+
+-- Keyset pagination of a brand's products by newest/oldest and by price
+CREATE INDEX idx_product_brand_created ON products(brand_id, created_at, id);
+CREATE INDEX idx_product_brand_price ON products(brand_id, price, id);
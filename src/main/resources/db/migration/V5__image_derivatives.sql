@@ -0,0 +1,23 @@
+-- V5__image_derivatives.sql
+
+-- Resized variants point at the original they were generated from
+ALTER TABLE product_images ADD COLUMN source_image_id UUID;
+ALTER TABLE product_images ADD CONSTRAINT fk_image_source
+    FOREIGN KEY (source_image_id) REFERENCES product_images (id) ON DELETE CASCADE;
+CREATE INDEX idx_image_source ON product_images(source_image_id);
+
+-- Queue of originals waiting for derivative generation
+CREATE TABLE image_derivative_jobs (
+    id UUID PRIMARY KEY,
+    source_image_id UUID NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    available_at TIMESTAMP NOT NULL,
+    locked_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_derivative_job_image FOREIGN KEY (source_image_id) REFERENCES product_images (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_derivative_job_ready ON image_derivative_jobs(status, available_at);
@@ -0,0 +1,14 @@
+-- V6__stored_objects.sql
+
+-- Index of content-addressed image objects, keyed by the SHA-256 of their bytes
+CREATE TABLE stored_objects (
+    content_hash CHAR(64) PRIMARY KEY,
+    file_key VARCHAR(500) NOT NULL UNIQUE,
+    content_type VARCHAR(100),
+    file_size BIGINT NOT NULL,
+    ref_count INT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_stored_object_unreferenced ON stored_objects(updated_at) WHERE ref_count = 0;
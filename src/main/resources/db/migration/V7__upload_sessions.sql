@@ -0,0 +1,28 @@
+-- V7__upload_sessions.sql
+
+-- Resumable uploads; each session is backed by one S3 multipart upload
+CREATE TABLE upload_sessions (
+    id UUID PRIMARY KEY,
+    product_id UUID NOT NULL,
+    file_key VARCHAR(500) NOT NULL,
+    upload_id VARCHAR(1024) NOT NULL,
+    content_type VARCHAR(100) NOT NULL,
+    total_size BIGINT NOT NULL,
+    chunk_size INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_upload_session_expiry ON upload_sessions(expires_at);
+
+-- Chunks received so far; chunk n is multipart part n + 1
+CREATE TABLE upload_session_parts (
+    session_id UUID NOT NULL,
+    part_number INT NOT NULL,
+    etag VARCHAR(255) NOT NULL,
+    size BIGINT NOT NULL,
+    PRIMARY KEY (session_id, part_number),
+    CONSTRAINT fk_upload_part_session FOREIGN KEY (session_id) REFERENCES upload_sessions (id) ON DELETE CASCADE
+);
@@ -0,0 +1,5 @@
+-- V8__product_image_url_index.sql
+
+-- Byte-ordered image URLs, matching the key order of S3 listings, for the
+-- storage reconciliation's range scans
+CREATE INDEX idx_image_url_c ON product_images(image_url COLLATE "C");
@@ -0,0 +1,11 @@
+-- V9__stored_object_references.sql
+
+-- Set once the object is known to be in storage; uploads re-send it while false
+ALTER TABLE stored_objects ADD COLUMN stored BOOLEAN NOT NULL DEFAULT TRUE;
+ALTER TABLE stored_objects ALTER COLUMN stored SET DEFAULT FALSE;
+
+-- ref_count now counts image rows rather than uploads
+UPDATE stored_objects so
+SET ref_count = (SELECT count(*) FROM product_images pi
+                 WHERE right(pi.image_url, length(so.file_key) + 1) = '/' || so.file_key),
+    updated_at = now();
@@ -0,0 +1,117 @@
+package com.example.ecommerce.catalog.domain;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Moving a category or a product writes only the owning foreign key: the statement count
+ * does not grow with the number of siblings, and neither side's inverse collection is
+ * loaded.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ReassignmentStatementCountTest {
+    private static final int SIBLINGS = 25;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private UUID oldParentId;
+    private UUID newParentId;
+    private UUID movedCategoryId;
+    private UUID movedProductId;
+
+    @BeforeEach
+    void setUp() {
+        Category oldParent = persist(category("Old parent", null));
+        Category newParent = persist(category("New parent", null));
+        for (int i = 0; i < SIBLINGS; i++) {
+            persist(category("Sibling " + i, oldParent));
+            persist(product("Sibling product " + i, oldParent));
+            persist(product("Other product " + i, newParent));
+        }
+        persist(category("Other child", newParent));
+        oldParentId = oldParent.getId();
+        newParentId = newParent.getId();
+        movedCategoryId = persist(category("Moved", oldParent)).getId();
+        movedProductId = persist(product("Moved product", oldParent)).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void changeParentWritesOnlyTheForeignKey() {
+        Category moved = entityManager.find(Category.class, movedCategoryId);
+        Category oldParent = moved.getParent();
+        Category newParent = entityManager.find(Category.class, newParentId);
+
+        moved.changeParent(newParent);
+        entityManager.flush();
+
+        // SELECT moved, SELECT new parent, UPDATE moved
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(Hibernate.isInitialized(oldParent)).isFalse();
+        assertThat(Hibernate.isInitialized(newParent.getSubCategories())).isFalse();
+
+        entityManager.clear();
+        assertThat(entityManager.find(Category.class, movedCategoryId).getParent().getId()).isEqualTo(newParentId);
+        assertThat(entityManager.find(Category.class, oldParentId)).isNotNull();
+    }
+
+    @Test
+    void assignToCategoryWritesOnlyTheForeignKey() {
+        Product moved = entityManager.find(Product.class, movedProductId);
+        Category oldCategory = moved.getCategory();
+        Category newCategory = entityManager.find(Category.class, newParentId);
+
+        moved.assignToCategory(newCategory);
+        entityManager.flush();
+
+        // SELECT product, SELECT new category, UPDATE product
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        assertThat(Hibernate.isInitialized(oldCategory)).isFalse();
+        assertThat(Hibernate.isInitialized(newCategory.getProducts())).isFalse();
+
+        entityManager.clear();
+        assertThat(entityManager.find(Product.class, movedProductId).getCategory().getId()).isEqualTo(newParentId);
+    }
+
+    // -------------------- private helpers --------------------
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private static Category category(String name, Category parent) {
+        return new Category.Builder().setName(name).setParent(parent).build();
+    }
+
+    private static Product product(String name, Category category) {
+        return new Product.Builder()
+                .setProductName(name)
+                .setCategory(category)
+                .setPrice(BigDecimal.TEN)
+                .setWeight(BigDecimal.ONE)
+                .setStatus(Product.Status.ACTIVE)
+                .build();
+    }
+}
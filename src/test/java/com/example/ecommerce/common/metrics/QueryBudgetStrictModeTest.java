@@ -0,0 +1,112 @@
+package com.example.ecommerce.common.metrics;
+
+import com.example.ecommerce.catalog.domain.Brand;
+import com.example.ecommerce.catalog.domain.Category;
+import com.example.ecommerce.catalog.domain.Product;
+import com.example.ecommerce.common.exception.QueryBudgetExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * With {@code catalog.query-budget.strict} on, a mapper that lazily loads each product's
+ * brand fails the request on the statement that goes over the repeat budget, instead of
+ * only being logged.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "catalog.query-budget.strict=true",
+        "catalog.query-budget.max-repeats=3"
+})
+@ImportAutoConfiguration(PropertyPlaceholderAutoConfiguration.class)
+@Import({ MetricsConfig.class, QueryBudgetStrictModeTest.Registry.class })
+class QueryBudgetStrictModeTest {
+    private static final int PRODUCTS = 5;
+
+    @TestConfiguration
+    static class Registry {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${catalog.query-budget.max-repeats}")
+    private int maxRepeats;
+
+    @Value("${catalog.query-budget.strict}")
+    private boolean strict;
+
+    @BeforeEach
+    void setUp() {
+        Category category = persist(new Category.Builder().setName("Shoes").build());
+        for (int i = 0; i < PRODUCTS; i++) {
+            Brand brand = persist(new Brand.Builder().setName("Brand " + i).setSlug("brand-" + i).build());
+            persist(new Product.Builder()
+                    .setProductName("Product " + i)
+                    .setCategory(category)
+                    .setBrand(brand)
+                    .setPrice(BigDecimal.TEN)
+                    .setWeight(BigDecimal.ONE)
+                    .setStatus(Product.Status.ACTIVE)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void lazyBrandLoadsInAMapperFailTheRequest() {
+        RequestSqlMetricsInterceptor interceptor = new RequestSqlMetricsInterceptor(meterRegistry, -1, maxRepeats,
+                strict);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        try {
+            List<Product> products = entityManager
+                    .createQuery("SELECT p FROM Product p ORDER BY p.productName", Product.class)
+                    .getResultList();
+
+            assertThatThrownBy(() -> products.stream().map(product -> product.getBrand().getName()).toList())
+                    .isInstanceOf(QueryBudgetExceededException.class)
+                    .hasMessageContaining("statement repeated " + (maxRepeats + 1) + " times");
+        } finally {
+            interceptor.afterCompletion(request, response, new Object(), null);
+        }
+
+        assertThat(meterRegistry.get("http.server.requests.sql.budget.exceeded").counter().count()).isEqualTo(1);
+    }
+
+    // -------------------- private helpers --------------------
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.ecommerce.common.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestSqlStatsTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestSqlStats.end();
+    }
+
+    @Test
+    void shapeIgnoresLiteralsParametersAndInListLength() {
+        String byLiterals = RequestSqlStats.shapeOf(
+                "select b1_0.id from brands b1_0 where b1_0.name = 'O''Neill' and b1_0.rank > 42");
+        String byParameters = RequestSqlStats.shapeOf(
+                "select b1_0.id\n  from brands b1_0\n where b1_0.name = ? and b1_0.rank > ?");
+        String shortIn = RequestSqlStats.shapeOf("select p1_0.id from products p1_0 where p1_0.brand_id in (?, ?)");
+        String longIn = RequestSqlStats.shapeOf("select p1_0.id from products p1_0 where p1_0.brand_id in (?,?,?,?)");
+
+        assertThat(byLiterals)
+                .isEqualTo(byParameters)
+                .isEqualTo("select b1_0.id from brands b1_0 where b1_0.name = ? and b1_0.rank > ?");
+        assertThat(shortIn)
+                .isEqualTo(longIn)
+                .isEqualTo("select p1_0.id from products p1_0 where p1_0.brand_id in (?)");
+    }
+
+    @Test
+    void repeatingOneShapeBeyondTheBudgetIsAViolation() {
+        RequestSqlStats stats = RequestSqlStats.begin("GET /products", -1, 2, false);
+
+        assertThat(stats.onStatement("select * from brands where id = 'a'")).isNull();
+        assertThat(stats.onStatement("select * from categories where id = 'a'")).isNull();
+        assertThat(stats.onStatement("select * from brands where id = 'b'")).isNull();
+        String violation = stats.onStatement("select * from brands where id = 'c'");
+
+        assertThat(violation).startsWith("statement repeated 3 times (budget 2)")
+                .endsWith("select * from brands where id = ?");
+        assertThat(stats.violation()).isEqualTo(violation);
+        assertThat(stats.mostRepeatedCount()).isEqualTo(3);
+        assertThat(stats.mostRepeatedShape()).isEqualTo("select * from brands where id = ?");
+    }
+
+    @Test
+    void exceedingTheStatementBudgetIsReportedOnce() {
+        RequestSqlStats stats = RequestSqlStats.begin("GET /products", 2, -1, false);
+
+        assertThat(stats.onStatement("select 1")).isNull();
+        assertThat(stats.onStatement("select 2")).isNull();
+        assertThat(stats.onStatement("select 3")).isEqualTo("3 statements exceed the budget of 2");
+        assertThat(stats.onStatement("select 4")).isNull();
+
+        assertThat(stats.statements()).isEqualTo(4);
+        assertThat(stats.violation()).isEqualTo("3 statements exceed the budget of 2");
+    }
+
+    @Test
+    void endDetachesTheStatsFromTheThread() {
+        RequestSqlStats stats = RequestSqlStats.begin("GET /products", -1, -1, true);
+
+        assertThat(RequestSqlStats.current()).isSameAs(stats);
+        assertThat(RequestSqlStats.end()).isSameAs(stats);
+        assertThat(RequestSqlStats.current()).isNull();
+    }
+}